@@ -1,5 +1,6 @@
 package data_structures;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.function.Function;
@@ -17,6 +18,11 @@ import interfaces.List;
 @SuppressWarnings("unchecked")
 public class ArrayList<E> implements List<E>{
 	
+	// Smallest length the array grows to, so tiny (or 0 capacity) lists don't grow one slot at a time
+	private static final int MIN_CAPACITY = 10;
+	// Some VMs reserve header words in an array, asking for more than this can fail
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+	
 	// Private fields needed by this list
 	// Will hold the data
 	private E[] elements;
@@ -37,8 +43,11 @@ public class ArrayList<E> implements List<E>{
 	/**
 	 * Constructs an ArrayList with an initial capacity given by the parameter initialCapacity.
 	 * @param initialCapacity - the initial capacity (length of array) we want the ArrayList to start with.
+	 * @throws IllegalArgumentException if initialCapacity is negative
 	 */
 	public ArrayList(int initialCapacity) {
+		if(initialCapacity < 0)
+			throw new IllegalArgumentException("Capacity can't be negative");
 		this.elements = (E[]) new Object[initialCapacity];
 		this.size = 0;
 	}
@@ -69,7 +78,7 @@ public class ArrayList<E> implements List<E>{
 	public void add(E obj) {
 		// Check if array is full, expands if it is
 		if(this.size == this.elements.length)
-			reallocate();
+			reallocate(this.size + 1);
 		// Add value at end and increase size
 		this.elements[size++] = obj;
 //		this.size++;
@@ -89,10 +98,9 @@ public class ArrayList<E> implements List<E>{
 			throw new IndexOutOfBoundsException();
 		// If array full, expands if it is
 		if(this.size == this.elements.length)
-			reallocate();
-		// Shift values to the right
-		for(int i = size; i > index; i--)
-			this.elements[i] = this.elements[i-1];
+			reallocate(this.size + 1);
+		// Shift values to the right in one block copy
+		System.arraycopy(this.elements, index, this.elements, index + 1, this.size - index);
 		// Place new value
 		this.elements[index] = obj;
 		// Increase size
@@ -100,18 +108,49 @@ public class ArrayList<E> implements List<E>{
 	}
 	/**
 	 * Expands the size of elements. 
-	 * It create an new array twice the length of the current elements array and places all the existing 
-	 * elements in it. This new array then replaces the old elements array.
+	 * It creates a new array 1.5 times the length of the current elements array (at least MIN_CAPACITY
+	 * and at least minCapacity) and copies all the existing elements to it in one block.
+	 * This new array then replaces the old elements array.
+	 * 
+	 * @param minCapacity - the smallest length the new array can have
+	 * @throws OutOfMemoryError if minCapacity is bigger than any array we can create
 	 */
-	private void reallocate() {
-		E[] temp = (E[]) new Object[this.size*2];
+	private void reallocate(int minCapacity) {
+		// minCapacity < 0 means size + n overflowed
+		if(minCapacity < 0 || minCapacity > MAX_CAPACITY)
+			throw new OutOfMemoryError("Required array length is too large");
+		int oldCapacity = this.elements.length;
+		// Grow by half, capped at MAX_CAPACITY if that overflows or gets too big
+		int newCapacity = oldCapacity + (oldCapacity >> 1);
+		if(newCapacity < 0 || newCapacity > MAX_CAPACITY)
+			newCapacity = MAX_CAPACITY;
+		newCapacity = Math.max(newCapacity, Math.max(minCapacity, MIN_CAPACITY));
 		
-		for(int i=0; i<this.elements.length; i++) {
-			temp[i] = this.elements[i];
-			elements[i] = null;
-		}
+		E[] temp = (E[]) new Object[newCapacity];
+		System.arraycopy(this.elements, 0, temp, 0, this.size);
 		this.elements = temp;
-		
+	}
+	
+	/**
+	 * Makes sure the list can hold at least minCapacity elements without growing again.
+	 * Useful before adding many elements at once.
+	 * 
+	 * @param minCapacity - the number of elements the list should be able to hold
+	 */
+	public void ensureCapacity(int minCapacity) {
+		if(minCapacity > this.elements.length)
+			reallocate(minCapacity);
+	}
+	
+	/**
+	 * Shrinks the internal array to the current size of the list, freeing the unused space.
+	 */
+	public void trimToSize() {
+		if(this.size < this.elements.length) {
+			E[] temp = (E[]) new Object[this.size];
+			System.arraycopy(this.elements, 0, temp, 0, this.size);
+			this.elements = temp;
+		}
 	}
 
 	/**
@@ -164,9 +203,8 @@ public class ArrayList<E> implements List<E>{
 		// Check bounds
 		if(index < 0 || index >= size)
 			throw new IndexOutOfBoundsException();
-		// Shift values to the left
-		for(int i = index; i < this.size-1; i++)
-			this.elements[i] = this.elements[i+1];
+		// Shift values to the left in one block copy
+		System.arraycopy(this.elements, index + 1, this.elements, index, this.size - index - 1);
 		// Null the last position
 		this.elements[this.size-1]= null;
 		// Decrease size
@@ -216,8 +254,7 @@ public class ArrayList<E> implements List<E>{
 	@Override
 	public void clear() {
 		// Empty array
-		for(int i = 0; i < this.size; i++)
-			this.elements[i] = null;
+		Arrays.fill(this.elements, 0, this.size, null);
 		this.size = 0;
 		
 	}
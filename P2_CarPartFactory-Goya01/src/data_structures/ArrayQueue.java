@@ -0,0 +1,117 @@
+package data_structures;
+
+import java.util.NoSuchElementException;
+
+import interfaces.Queue;
+
+/**
+ * Implements the Queue interface using a circular array.
+ * The front of the Queue is at position head and the values that follow it wrap around
+ * to the start of the array when they reach the end. This way enqueue and dequeue never
+ * shift values or create nodes, they just move an index.
+ *
+ * The length of the array is always a power of two so wrapping around is done with a mask
+ * instead of %. Null values are allowed, we use size to know which positions are taken.
+ *
+ * @param <E>
+ */
+@SuppressWarnings("unchecked")
+public class ArrayQueue<E> implements Queue<E> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	// Will hold the data
+	private E[] elements;
+	// Position of the front of the Queue
+	private int head;
+	// How many values are in the Queue
+	private int size;
+
+	public ArrayQueue() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a Queue that can hold at least initialCapacity values before growing.
+	 * @param initialCapacity - (int) minimum length of the array (rounded up to a power of two)
+	 */
+	public ArrayQueue(int initialCapacity) {
+		if(initialCapacity < 1)
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		int capacity = 1;
+		while(capacity < initialCapacity && capacity < (1 << 30))
+			capacity <<= 1;
+		this.elements = (E[]) new Object[capacity];
+		this.head = 0;
+		this.size = 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void clear() {
+		// Null out the taken positions to help GC
+		int mask = elements.length - 1;
+		for(int i = 0; i < size; i++)
+			elements[(head + i) & mask] = null;
+		head = 0;
+		size = 0;
+	}
+
+	@Override
+	public void enqueue(E obj) {
+		if(size == elements.length)
+			reallocate();
+		elements[(head + size) & (elements.length - 1)] = obj;
+		size++;
+	}
+
+	@Override
+	public E dequeue() {
+		if(this.isEmpty())
+			throw new NoSuchElementException();
+		E oldValue = elements[head];
+		elements[head] = null;
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		return oldValue;
+	}
+
+	@Override
+	public E front() {
+		if(this.isEmpty())
+			throw new NoSuchElementException();
+		return elements[head];
+	}
+
+	/**
+	 * Doubles the array. The values are copied so the front ends up at position 0 again.
+	 */
+	private void reallocate() {
+		E[] temp = (E[]) new Object[elements.length * 2];
+		// From head to the end of the array, then the part that wrapped around
+		int firstPart = elements.length - head;
+		System.arraycopy(elements, head, temp, 0, firstPart);
+		System.arraycopy(elements, 0, temp, firstPart, head);
+		this.elements = temp;
+		this.head = 0;
+	}
+
+	@Override
+	public String toString() {
+		String str = "{ ";
+		int mask = elements.length - 1;
+		for(int i = 0; i < size; i++)
+			str += elements[(head + i) & mask] + " ";
+		return str + "}";
+	}
+
+}
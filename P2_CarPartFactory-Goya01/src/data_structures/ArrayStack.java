@@ -0,0 +1,123 @@
+package data_structures;
+
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import interfaces.Stack;
+
+/**
+ * This implementation of the Stack uses an array. The bottom of the Stack is at position 0
+ * and the top at position size - 1, so push and pop only touch the end of the array.
+ * 
+ * Unlike LinkedStack no node is created per push. The array doubles when it's full and is kept
+ * when the Stack is emptied, so a Stack that is filled and drained over and over (like the
+ * production bin) stops allocating once it has grown to its usual size.
+ *
+ * @param <E>
+ */
+@SuppressWarnings("unchecked")
+public class ArrayStack<E> implements Stack<E> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	// Will hold the data
+	private E[] elements;
+	// Number of items, the top is at position size - 1
+	private int size;
+
+	public ArrayStack() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a Stack whose array starts with the given length.
+	 * @param initialCapacity - (int) initial length of the array
+	 */
+	public ArrayStack(int initialCapacity) {
+		if(initialCapacity < 1)
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		this.elements = (E[]) new Object[initialCapacity];
+		this.size = 0;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public E top() {
+		if(this.isEmpty())
+			throw new NoSuchElementException();
+		return elements[size - 1];
+	}
+
+	@Override
+	public E pop() {
+		if(this.isEmpty())
+			throw new NoSuchElementException();
+		E topValue = elements[--size];
+		// Help GC
+		elements[size] = null;
+		return topValue;
+	}
+
+	@Override
+	public void push(E obj) {
+		if(obj == null)
+			throw new IllegalArgumentException();
+		if(size == elements.length)
+			reallocate();
+		elements[size++] = obj;
+	}
+
+	/**
+	 * Doubles the length of the array.
+	 */
+	private void reallocate() {
+		// Don't overflow for huge stacks
+		int newCapacity = elements.length <= Integer.MAX_VALUE / 2 ? elements.length * 2 : Integer.MAX_VALUE - 8;
+		if(newCapacity <= size)
+			throw new OutOfMemoryError("Stack is too big");
+		E[] temp = (E[]) new Object[newCapacity];
+		System.arraycopy(elements, 0, temp, 0, size);
+		this.elements = temp;
+	}
+
+	/**
+	 * Empties the Stack. The array is kept so it can be reused.
+	 */
+	@Override
+	public void clear() {
+		for(int i = 0; i < size; i++)
+			elements[i] = null;
+		size = 0;
+	}
+
+	/**
+	 * Gives every item to consumer from top to bottom in a single pass over the array
+	 * and leaves the Stack empty. The array is kept so it can be reused.
+	 */
+	@Override
+	public void drainTo(Consumer<? super E> consumer) {
+		while(size > 0) {
+			E item = elements[--size];
+			elements[size] = null;
+			consumer.accept(item);
+		}
+	}
+
+	@Override
+	public String toString() {
+		String str = "{ ";
+		for(int i = size - 1; i >= 0; i--)
+			str += elements[i] + " ";
+		return str + "}";
+	}
+
+}
@@ -0,0 +1,317 @@
+package data_structures;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import interfaces.List;
+
+/**
+ * List implementation that uses a circular array (like a double ended queue).
+ *
+ * Position 0 of the List is stored at position head of the array and the following elements
+ * wrap around to the start of the array when they reach the end. Because of this adding or removing
+ * at either end of the List is O(1): we only move head or size, nothing gets shifted.
+ * Adding or removing in the middle shifts whichever side of the List is shorter.
+ *
+ * This makes it a good fit for inventories, where parts are added at the end and taken from the front.
+ *
+ * @param <E>
+ */
+@SuppressWarnings("unchecked")
+public class CircularArrayList<E> implements List<E> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	// Will hold the data
+	private E[] elements;
+	// Position in the array of the first element of the List
+	private int head;
+	// How many elements are in the List
+	private int size;
+
+	public CircularArrayList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs a List with an initial capacity given by the parameter initialCapacity.
+	 * @param initialCapacity - the initial length of the array
+	 */
+	public CircularArrayList(int initialCapacity) {
+		if(initialCapacity < 1)
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		this.elements = (E[]) new Object[initialCapacity];
+		this.head = 0;
+		this.size = 0;
+	}
+
+	/**
+	 * Position in the array of the element at position index of the List.
+	 */
+	private int physical(int index) {
+		int pos = head + index;
+		return pos >= elements.length ? pos - elements.length : pos;
+	}
+
+	private void checkIndex(int index) {
+		if(index < 0 || index >= size)
+			throw new IndexOutOfBoundsException();
+	}
+
+	/**
+	 * Doubles the length of the array. The elements are copied so the List starts at position 0 again.
+	 */
+	private void reallocate() {
+		int newCapacity = elements.length <= Integer.MAX_VALUE / 2 ? elements.length * 2 : Integer.MAX_VALUE - 8;
+		if(newCapacity <= size)
+			throw new OutOfMemoryError("List is too big");
+		E[] temp = (E[]) new Object[newCapacity];
+		// From head to the end of the array, then the part that wrapped around
+		int firstPart = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, temp, 0, firstPart);
+		System.arraycopy(elements, 0, temp, firstPart, size - firstPart);
+		this.elements = temp;
+		this.head = 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Adds obj to the end of the List.
+	 */
+	@Override
+	public void add(E obj) {
+		if(size == elements.length)
+			reallocate();
+		elements[physical(size)] = obj;
+		size++;
+	}
+
+	/**
+	 * Adds obj to the front of the List by moving head back one position.
+	 */
+	public void addFirst(E obj) {
+		if(size == elements.length)
+			reallocate();
+		head = head == 0 ? elements.length - 1 : head - 1;
+		elements[head] = obj;
+		size++;
+	}
+
+	/**
+	 * Adds obj at position index, shifting the shorter side of the List.
+	 */
+	@Override
+	public void add(int index, E obj) {
+		if(index < 0 || index > size)
+			throw new IndexOutOfBoundsException();
+		if(index == 0) {
+			addFirst(obj);
+			return;
+		}
+		if(size == elements.length)
+			reallocate();
+		if(index < size / 2) {
+			// Move the first index elements one position to the left
+			head = head == 0 ? elements.length - 1 : head - 1;
+			for(int i = 0; i < index; i++)
+				elements[physical(i)] = elements[physical(i + 1)];
+		}
+		else {
+			// Move the elements from index to the end one position to the right
+			for(int i = size; i > index; i--)
+				elements[physical(i)] = elements[physical(i - 1)];
+		}
+		elements[physical(index)] = obj;
+		size++;
+	}
+
+	@Override
+	public E get(int index) {
+		checkIndex(index);
+		return elements[physical(index)];
+	}
+
+	@Override
+	public E set(int index, E obj) {
+		checkIndex(index);
+		int pos = physical(index);
+		E oldValue = elements[pos];
+		elements[pos] = obj;
+		return oldValue;
+	}
+
+	/**
+	 * Removes the element at position index, shifting the shorter side of the List.
+	 */
+	@Override
+	public boolean remove(int index) {
+		checkIndex(index);
+		if(index < size / 2) {
+			// Move the elements before index one position to the right, then drop the old head
+			for(int i = index; i > 0; i--)
+				elements[physical(i)] = elements[physical(i - 1)];
+			elements[head] = null;
+			head = physical(1);
+		}
+		else {
+			// Move the elements after index one position to the left, then drop the old last
+			for(int i = index; i < size - 1; i++)
+				elements[physical(i)] = elements[physical(i + 1)];
+			elements[physical(size - 1)] = null;
+		}
+		size--;
+		return true;
+	}
+
+	/**
+	 * Removes and returns the first element of the List.
+	 * @return (E) the removed element
+	 * @throws NoSuchElementException if the List is empty
+	 */
+	public E removeFirst() {
+		if(isEmpty())
+			throw new NoSuchElementException();
+		E value = elements[head];
+		elements[head] = null;
+		head = physical(1);
+		size--;
+		return value;
+	}
+
+	/**
+	 * Removes and returns the last element of the List.
+	 * @return (E) the removed element
+	 * @throws NoSuchElementException if the List is empty
+	 */
+	public E removeLast() {
+		if(isEmpty())
+			throw new NoSuchElementException();
+		int pos = physical(size - 1);
+		E value = elements[pos];
+		elements[pos] = null;
+		size--;
+		return value;
+	}
+
+	/**
+	 * Removes the first k elements of the List. Only the removed positions are touched,
+	 * so this is O(k) no matter how long the List is.
+	 * @param k - (int) number of elements to remove
+	 * @throws IndexOutOfBoundsException if k is negative or bigger than size
+	 */
+	public void removeFirst(int k) {
+		if(k < 0 || k > size)
+			throw new IndexOutOfBoundsException();
+		// Help GC
+		for(int i = 0; i < k; i++)
+			elements[physical(i)] = null;
+		head = size == k ? 0 : physical(k);
+		size -= k;
+	}
+
+	@Override
+	public boolean remove(E obj) {
+		int index = firstIndex(obj);
+		if(index != -1)
+			return remove(index);
+		return false;
+	}
+
+	@Override
+	public boolean contains(E obj) {
+		return firstIndex(obj) != -1;
+	}
+
+	@Override
+	public void clear() {
+		removeFirst(size);
+	}
+
+	@Override
+	public int removeAll(E obj) {
+		// Compact the List in one pass, keeping the elements that are not obj
+		int kept = 0;
+		for(int i = 0; i < size; i++) {
+			E e = elements[physical(i)];
+			if(!e.equals(obj))
+				elements[physical(kept++)] = e;
+		}
+		int count = size - kept;
+		for(int i = kept; i < size; i++)
+			elements[physical(i)] = null;
+		size = kept;
+		return count;
+	}
+
+	@Override
+	public int firstIndex(E obj) {
+		for(int i = 0; i < size; i++) {
+			if(elements[physical(i)].equals(obj))
+				return i;
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndex(E obj) {
+		for(int i = size - 1; i >= 0; i--) {
+			if(elements[physical(i)].equals(obj))
+				return i;
+		}
+		return -1;
+	}
+
+	@Override
+	public E first() {
+		if(this.isEmpty())
+			throw new NoSuchElementException();
+		return elements[head];
+	}
+
+	@Override
+	public E last() {
+		if(this.isEmpty())
+			throw new NoSuchElementException();
+		return elements[physical(size - 1)];
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int currentPosition = 0;
+
+			@Override
+			public boolean hasNext() {
+				return currentPosition < size;
+			}
+
+			@Override
+			public E next() {
+				if(!hasNext())
+					throw new NoSuchElementException();
+				return elements[physical(currentPosition++)];
+			}
+		};
+	}
+
+	/**
+	 * Returns a String version of the List in the format { A, B, C }.
+	 */
+	@Override
+	public String toString() {
+		String str = "{ ";
+		for(int i = 0; i < size; i++)
+			str += elements[physical(i)] + (i < size - 1 ? ", " : " ");
+		return str + "}";
+	}
+
+}
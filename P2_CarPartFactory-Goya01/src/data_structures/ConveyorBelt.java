@@ -0,0 +1,234 @@
+package data_structures;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import interfaces.Queue;
+
+/**
+ * A conveyor belt with a fixed number of slots. Each slot either holds a value or is empty (null).
+ *
+ * The slots are stored in a circular array with the index of the front slot (head), so moving the
+ * belt forward one slot is O(1): the value at the front falls off and the new value takes its place.
+ * We also keep count of how many slots are occupied so checking if the belt has anything on it
+ * doesn't require looking at every slot.
+ *
+ * It implements Queue so the belt can still be used as a regular queue of slots: dequeue removes the
+ * front slot and enqueue adds one at the back, growing the array when every position is in use.
+ * Normal use is advance(), which keeps the number of slots the same.
+ *
+ * @param <E>
+ */
+@SuppressWarnings("unchecked")
+public class ConveyorBelt<E> implements Queue<E>, Iterable<E> {
+
+	// The slots, null means empty
+	private E[] slots;
+	// Position of the front slot
+	private int head;
+	// Number of slots currently on the belt (normally slots.length, less after a dequeue)
+	private int size;
+	// Number of slots holding a value
+	private int occupied;
+
+	/**
+	 * Creates a belt with the given number of empty slots.
+	 * @param capacity - (int) number of slots of the belt
+	 */
+	public ConveyorBelt(int capacity) {
+		if(capacity < 1)
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		this.slots = (E[]) new Object[capacity];
+		this.head = 0;
+		this.size = capacity;
+		this.occupied = 0;
+	}
+
+	/**
+	 * Position in the array of the i-th slot counting from the front.
+	 */
+	private int position(int i) {
+		int pos = head + i;
+		return pos >= slots.length ? pos - slots.length : pos;
+	}
+
+	/**
+	 * Moves the belt one slot forward. The value at the front falls off and obj is placed at the back.
+	 * Same as enqueue(obj) followed by dequeue(), but in one step when every position of the array is in use.
+	 * @param obj - (E) value placed at the back, null for an empty slot
+	 * @return (E) the value that fell off the front, null if that slot was empty
+	 */
+	public E advance(E obj) {
+		if(size != slots.length) {
+			enqueue(obj);
+			return dequeue();
+		}
+		E out = slots[head];
+		slots[head] = obj;
+		head = position(1);
+		if(out != null) occupied--;
+		if(obj != null) occupied++;
+		return out;
+	}
+
+	/**
+	 * Moves the belt n slots forward adding only empty slots, same as calling advance(null) n times.
+	 * Whatever falls off the front is dropped. Once n reaches the length of the belt every slot is empty,
+	 * so this is O(min(n, size)).
+	 * @param n - (int) number of slots to move
+	 */
+	public void skip(int n) {
+		if(n < 0)
+			throw new IllegalArgumentException("Can't move the belt backwards");
+		if(n >= size || occupied == 0) {
+			reset();
+			// Keep head where n advances would have left it
+			head = (int) ((head + (long) n) % slots.length);
+		}
+		else {
+			for(int i = 0; i < n; i++)
+				advance(null);
+		}
+	}
+
+	/**
+	 * Number of slots that hold a value.
+	 * @return (int) occupied slots
+	 */
+	public int occupied() {
+		return occupied;
+	}
+
+	/**
+	 * Checks if every slot is empty.
+	 * @return (boolean) true if there is nothing on the belt
+	 */
+	public boolean isClear() {
+		return occupied == 0;
+	}
+
+	/**
+	 * Gives every value on the belt to consumer, from front to back, and empties the slots.
+	 * @param consumer - receives each non-null value
+	 */
+	public void drainTo(Consumer<? super E> consumer) {
+		for(int i = 0; i < size && occupied > 0; i++) {
+			int pos = position(i);
+			if(slots[pos] != null) {
+				consumer.accept(slots[pos]);
+				slots[pos] = null;
+				occupied--;
+			}
+		}
+	}
+
+	/**
+	 * Empties every slot, the belt keeps its length.
+	 */
+	public void reset() {
+		drainTo(obj -> {});
+	}
+
+	/**
+	 * Number of slots on the belt.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the belt has no slots at all (not if the slots are empty, see isClear()).
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes every slot, like any other queue. Use reset() to empty the slots and keep the length.
+	 */
+	@Override
+	public void clear() {
+		reset();
+		head = 0;
+		size = 0;
+	}
+
+	/**
+	 * Adds a slot at the back of the belt, the array doubles if every position is in use.
+	 */
+	@Override
+	public void enqueue(E obj) {
+		if(size == slots.length)
+			grow();
+		slots[position(size)] = obj;
+		size++;
+		if(obj != null) occupied++;
+	}
+
+	/**
+	 * Doubles the array, the slots are copied in order starting at position 0.
+	 */
+	private void grow() {
+		E[] temp = (E[]) new Object[Math.max(1, slots.length * 2)];
+		for(int i = 0; i < size; i++)
+			temp[i] = slots[position(i)];
+		slots = temp;
+		head = 0;
+	}
+
+	/**
+	 * Removes the front slot.
+	 */
+	@Override
+	public E dequeue() {
+		if(this.isEmpty())
+			throw new NoSuchElementException();
+		E out = slots[head];
+		slots[head] = null;
+		head = position(1);
+		size--;
+		if(out != null) occupied--;
+		return out;
+	}
+
+	@Override
+	public E front() {
+		if(this.isEmpty())
+			throw new NoSuchElementException();
+		return slots[head];
+	}
+
+	/**
+	 * Iterates the slots from front to back, empty slots are returned as null.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int i = 0;
+
+			@Override
+			public boolean hasNext() {
+				return i < size;
+			}
+
+			@Override
+			public E next() {
+				if(!hasNext())
+					throw new NoSuchElementException();
+				return slots[position(i++)];
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		String str = "{ ";
+		for(E e : this)
+			str += e + " ";
+		return str + "}";
+	}
+
+}
@@ -0,0 +1,332 @@
+package data_structures;
+
+import java.io.PrintStream;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import interfaces.Entry;
+import interfaces.HashFunction;
+import interfaces.List;
+import interfaces.Map;
+
+/**
+ * Map implementation that uses open addressing with linear probing.
+ * Keys and values are kept in two parallel arrays, so there are no nodes to allocate or follow.
+ * If the slot a key hashes to is taken we look at the next one (wrapping around) until we
+ * find the key or an empty slot.
+ *
+ * The capacity is always a power of two so the slot can be found with a mask instead of %.
+ * Removing uses backward shifting instead of tombstones, so lookups never walk over deleted slots.
+ *
+ * @param <K>
+ * @param <V>
+ */
+@SuppressWarnings("unchecked")
+public class HashTableLP<K, V> implements Map<K, V> {
+
+	// Load factor used when none is given
+	public static final double DEFAULT_LOAD_FACTOR = 0.5;
+
+	// keys[i] and values[i] are one entry, a null key means the slot is empty
+	private K[] keys;
+	private V[] values;
+	private int currentSize;
+	private HashFunction<K> hashFunction;
+	// Highest size / capacity allowed before we double the arrays
+	private double loadFactor;
+	// Size at which we have to grow, saved so put() doesn't multiply every time
+	private int threshold;
+
+	public HashTableLP(int initialCapacity, HashFunction<K> hashFunction) {
+		this(initialCapacity, hashFunction, DEFAULT_LOAD_FACTOR);
+	}
+
+	/**
+	 * Creates a table with at least initialCapacity slots (rounded up to a power of two).
+	 * @param initialCapacity - (int) minimum number of slots to start with
+	 * @param hashFunction - (HashFunction<K>) function used to find the home slot of a key
+	 * @param loadFactor - (double) maximum load factor, must be between 0 and 1
+	 */
+	public HashTableLP(int initialCapacity, HashFunction<K> hashFunction, double loadFactor) {
+		if(initialCapacity < 1) throw new IllegalArgumentException("Size must be at least 1");
+		if(hashFunction == null) throw new IllegalArgumentException("Must provide a hash function");
+		if(!(loadFactor > 0 && loadFactor < 1)) throw new IllegalArgumentException("Load factor must be between 0 and 1");
+
+		this.hashFunction = hashFunction;
+		this.loadFactor = loadFactor;
+		this.currentSize = 0;
+		allocate(LinearProbing.tableSizeFor(initialCapacity));
+	}
+
+	private void allocate(int capacity) {
+		this.keys = (K[]) new Object[capacity];
+		this.values = (V[]) new Object[capacity];
+		this.threshold = LinearProbing.threshold(capacity, loadFactor);
+	}
+
+	/**
+	 * Home slot of a key.
+	 */
+	private int slot(K key) {
+		return LinearProbing.slot(hashFunction.hashCode(key), keys.length - 1);
+	}
+
+	/**
+	 * Walks the cluster starting at the home slot of key.
+	 * @return (int) slot of the key if present, otherwise -(emptySlot + 1) where emptySlot
+	 * is where the key would be inserted. So the result is negative only when the key is missing.
+	 */
+	private int probe(K key) {
+		int mask = keys.length - 1;
+		int i = slot(key);
+		while(keys[i] != null) {
+			if(keys[i].equals(key)) return i;
+			i = LinearProbing.next(i, mask);
+		}
+		return -(i + 1);
+	}
+
+	/**
+	 * Stores a new entry in an empty slot returned by probe() and grows if needed.
+	 */
+	private void insertAt(int i, K key, V value) {
+		keys[i] = key;
+		values[i] = value;
+		if(++currentSize > threshold)
+			resize();
+	}
+
+	/**
+	 * Empties slot i.
+	 *
+	 * We can't just null the slot, any key further along the cluster that probed past i would
+	 * stop being reachable. Instead we move back every later entry whose home slot is not
+	 * between the hole and its current slot, until we reach an empty slot.
+	 */
+	private void removeAt(int i) {
+		int mask = keys.length - 1;
+		int hole = i;
+		int j = LinearProbing.next(i, mask);
+		while(keys[j] != null) {
+			if(LinearProbing.fillsHole(hole, j, slot(keys[j]), mask)) {
+				keys[hole] = keys[j];
+				values[hole] = values[j];
+				hole = j;
+			}
+			j = LinearProbing.next(j, mask);
+		}
+		keys[hole] = null;
+		values[hole] = null;
+		currentSize--;
+	}
+
+	/**
+	 * Doubles the arrays and puts every entry back in its new slot.
+	 */
+	private void resize() {
+		K[] oldKeys = keys;
+		V[] oldValues = values;
+		allocate(oldKeys.length * 2);
+		int mask = keys.length - 1;
+		for(int j = 0; j < oldKeys.length; j++) {
+			if(oldKeys[j] == null) continue;
+			int i = slot(oldKeys[j]);
+			while(keys[i] != null)
+				i = LinearProbing.next(i, mask);
+			keys[i] = oldKeys[j];
+			values[i] = oldValues[j];
+		}
+	}
+
+	/**
+	 * Returns the current number of slots.
+	 * @return (int) length of the key array
+	 */
+	public int capacity() {
+		return keys.length;
+	}
+
+	@Override
+	public int size() {
+		return currentSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public V get(K key) {
+		return getOrDefault(key, null);
+	}
+
+	@Override
+	public V getOrDefault(K key, V defaultValue) {
+		if(key == null) throw new IllegalArgumentException("Invalid parameter");
+		int i = probe(key);
+		return i < 0 ? defaultValue : values[i];
+	}
+
+	@Override
+	public V put(K key, V value) {
+		if(key == null || value == null) throw new IllegalArgumentException("Invalid parameters");
+		int i = probe(key);
+		if(i < 0) {
+			insertAt(-(i + 1), key, value);
+			return null;
+		}
+		V oldValue = values[i];
+		values[i] = value;
+		return oldValue;
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+		if(key == null || value == null) throw new IllegalArgumentException("Invalid parameters");
+		int i = probe(key);
+		if(i >= 0) return values[i];
+		insertAt(-(i + 1), key, value);
+		return null;
+	}
+
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		if(key == null || remappingFunction == null) throw new IllegalArgumentException("Invalid parameters");
+		int i = probe(key);
+		V newValue = remappingFunction.apply(key, i < 0 ? null : values[i]);
+		if(i < 0) {
+			if(newValue != null) insertAt(-(i + 1), key, newValue);
+		}
+		else if(newValue == null) removeAt(i);
+		else values[i] = newValue;
+		return newValue;
+	}
+
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		if(key == null || value == null || remappingFunction == null) throw new IllegalArgumentException("Invalid parameters");
+		int i = probe(key);
+		if(i < 0) {
+			insertAt(-(i + 1), key, value);
+			return value;
+		}
+		V newValue = remappingFunction.apply(values[i], value);
+		if(newValue == null) removeAt(i);
+		else values[i] = newValue;
+		return newValue;
+	}
+
+	@Override
+	public V remove(K key) {
+		if(key == null) throw new IllegalArgumentException("Invalid parameter");
+		int i = probe(key);
+		if(i < 0) return null;
+		V oldValue = values[i];
+		removeAt(i);
+		return oldValue;
+	}
+
+	@Override
+	public boolean containsKey(K key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public void clear() {
+		for(int i = 0; i < keys.length; i++) {
+			keys[i] = null;
+			values[i] = null;
+		}
+		currentSize = 0;
+	}
+
+	@Override
+	public List<K> getKeys() {
+		List<K> result = new SinglyLinkedList<>();
+		for(int i = 0; i < keys.length; i++) {
+			if(keys[i] != null)
+				result.add(0, keys[i]);
+		}
+		return result;
+	}
+
+	@Override
+	public List<V> getValues() {
+		List<V> result = new SinglyLinkedList<>();
+		for(int i = 0; i < keys.length; i++) {
+			if(keys[i] != null)
+				result.add(0, values[i]);
+		}
+		return result;
+	}
+
+	@Override
+	public Iterable<K> keys() {
+		return () -> new Slots<K>() {
+			@Override
+			protected K valueAt(int i) {
+				return keys[i];
+			}
+		};
+	}
+
+	@Override
+	public Iterable<V> values() {
+		return () -> new Slots<V>() {
+			@Override
+			protected V valueAt(int i) {
+				return values[i];
+			}
+		};
+	}
+
+	@Override
+	public Iterable<Entry<K, V>> entries() {
+		return () -> new Slots<Entry<K, V>>() {
+			@Override
+			protected Entry<K, V> valueAt(int i) {
+				return new MapEntry<>(keys[i], values[i]);
+			}
+		};
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		for(int i = 0; i < keys.length; i++) {
+			if(keys[i] != null)
+				action.accept(keys[i], values[i]);
+		}
+	}
+
+	@Override
+	public String toString() {
+		String str = "{ ";
+		for(int i = 0; i < keys.length; i++) {
+			if(keys[i] != null)
+				str += "(" + keys[i] + ", " + values[i] + ") ";
+		}
+		return str + "}";
+	}
+
+	@Override
+	public void print(PrintStream out) {
+		out.println(this);
+	}
+
+	/**
+	 * Iterates over the slots that hold a key, subclasses decide what to return for each one (key, value or entry).
+	 */
+	private abstract class Slots<T> extends SlotIterator<T> {
+		@Override
+		protected int capacity() {
+			return keys.length;
+		}
+
+		@Override
+		protected boolean isUsed(int i) {
+			return keys[i] != null;
+		}
+	}
+
+}
@@ -1,15 +1,29 @@
 package data_structures;
 
 import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 
+import interfaces.Entry;
 import interfaces.HashFunction;
 import interfaces.List;
 import interfaces.Map;
 
 
+/**
+ * Map implementation that uses separate chaining. Each bucket is a SinglyLinkedList of BucketNodes.
+ * The bucket array doubles in length whenever the load factor (size / buckets) goes above the
+ * maximum load factor, so the chains stay short no matter how many keys we add.
+ * Optionally the table can also shrink back when entries are removed.
+ *
+ * @param <K>
+ * @param <V>
+ */
 public class HashTableSC<K, V> implements Map<K, V> {
 	
-	private static class BucketNode<K,V>{
+	private static class BucketNode<K,V> implements Entry<K,V> {
 		private K key;
 		private V value;
 		
@@ -18,25 +32,131 @@ public class HashTableSC<K, V> implements Map<K, V> {
 			this.value = value;
 		}
 		
+		@Override
 		public K getKey() {return key;}
+		@Override
 		public V getValue() {return value;}
+		public void setValue(V value) {this.value = value;}
 		
 	}
 	
+	// Load factor used when none is given
+	public static final double DEFAULT_LOAD_FACTOR = 0.75;
+	
 	private int currentSize;
 	private List<BucketNode<K,V>>[] buckets;
 	private HashFunction<K> hashFunction;
+	// Highest size / buckets.length allowed before we rehash
+	private double loadFactor;
+	// Whether remove() and clear() give memory back by shrinking the bucket array
+	private boolean shrinkable;
+	// The table never shrinks below the capacity it was created with
+	private int initialCapacity;
 
 	public HashTableSC(int initialCapacity, HashFunction<K> hashFunction) {
+		this(initialCapacity, hashFunction, DEFAULT_LOAD_FACTOR, false);
+	}
+	
+	/**
+	 * Creates a table that grows once size / capacity goes above loadFactor.
+	 * @param initialCapacity - (int) number of buckets to start with
+	 * @param hashFunction - (HashFunction<K>) function used to find the bucket of a key
+	 * @param loadFactor - (double) maximum load factor before the bucket array is doubled
+	 * @param shrinkable - (boolean) if true the bucket array is halved when the table gets sparse
+	 */
+	public HashTableSC(int initialCapacity, HashFunction<K> hashFunction, double loadFactor, boolean shrinkable) {
 		if(initialCapacity < 1) throw new IllegalArgumentException("Size must be at least 1");
 		if(hashFunction == null) throw new IllegalArgumentException("Must provide a hash function");
+		if(!(loadFactor > 0)) throw new IllegalArgumentException("Load factor must be positive");
 		
 		this.currentSize = 0;
-		this.buckets = new SinglyLinkedList[initialCapacity];
-		for (int i = 0; i < initialCapacity; i++) {
-			buckets[i] = new SinglyLinkedList<BucketNode<K,V>>();
-		}
+		this.buckets = newBuckets(initialCapacity);
 		this.hashFunction = hashFunction;
+		this.loadFactor = loadFactor;
+		this.shrinkable = shrinkable;
+		this.initialCapacity = initialCapacity;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <K, V> List<BucketNode<K,V>>[] newBuckets(int capacity) {
+		List<BucketNode<K,V>>[] result = new SinglyLinkedList[capacity];
+		for (int i = 0; i < capacity; i++) {
+			result[i] = new SinglyLinkedList<BucketNode<K,V>>();
+		}
+		return result;
+	}
+	
+	/**
+	 * Finds the bucket a key belongs to. floorMod keeps negative hash codes inside the array.
+	 */
+	private int bucketIndex(K key, int capacity) {
+		return Math.floorMod(hashFunction.hashCode(key), capacity);
+	}
+	
+	/**
+	 * Moves every entry to a new bucket array of the given length.
+	 * The BucketNodes are reused, only the chain nodes are rebuilt.
+	 * @param newCapacity - (int) the new number of buckets
+	 */
+	private void rehash(int newCapacity) {
+		List<BucketNode<K,V>>[] newBuckets = newBuckets(newCapacity);
+		for (List<BucketNode<K,V>> bucket : buckets) {
+			for (BucketNode<K,V> bucketNode : bucket) {
+				newBuckets[bucketIndex(bucketNode.getKey(), newCapacity)].add(0, bucketNode);
+			}
+		}
+		this.buckets = newBuckets;
+	}
+	
+	/**
+	 * Returns the node holding key, moving the iterator of its bucket up to it.
+	 * Afterwards chain.remove() unlinks that node, so removing takes the same single walk of the chain.
+	 * @param chain - (Iterator) iterator over the bucket of key
+	 * @return (BucketNode) the node, null if the key is not in the bucket
+	 */
+	private BucketNode<K,V> findNode(Iterator<BucketNode<K,V>> chain, K key) {
+		while(chain.hasNext()) {
+			BucketNode<K,V> bucketNode = chain.next();
+			if(bucketNode.getKey().equals(key)) return bucketNode;
+		}
+		return null;
+	}
+	
+	/**
+	 * Adds a new entry to the front of the bucket, the caller already checked the key is not there.
+	 * Doubles the array if we went above the load factor.
+	 */
+	private void addNode(List<BucketNode<K,V>> bucket, K key, V value) {
+		bucket.add(0, new BucketNode<>(key, value));
+		currentSize++;
+		// Too many entries per bucket, double the array
+		if(currentSize > loadFactor * buckets.length)
+			rehash(buckets.length * 2);
+	}
+	
+	/**
+	 * Removes the node findNode just returned from its bucket. Halves the array if the table is shrinkable and got sparse.
+	 * @param chain - (Iterator) the iterator findNode walked, positioned right after the node
+	 */
+	private void removeNode(Iterator<BucketNode<K,V>> chain) {
+		chain.remove();
+		currentSize--;
+		// Only a quarter of the max load is used, halve the array (never below the initial capacity)
+		if(shrinkable && buckets.length / 2 >= initialCapacity 
+				&& currentSize < loadFactor * buckets.length / 4)
+			rehash(buckets.length / 2);
+	}
+	
+	/**
+	 * Returns the current number of buckets.
+	 * @return (int) length of the bucket array
+	 */
+	public int capacity() {
+		return buckets.length;
+	}
+	
+	public double getLoadFactor() {
+		return loadFactor;
 	}
 	
 	@Override
@@ -51,42 +171,89 @@ public class HashTableSC<K, V> implements Map<K, V> {
 
 	@Override
 	public V get(K key) {
+		return getOrDefault(key, null);
+	}
+
+	@Override
+	public V getOrDefault(K key, V defaultValue) {
 		if(key == null) throw new IllegalArgumentException("Invalid parameter");
-		int targetBucket = hashFunction.hashCode(key) % buckets.length;
+		int targetBucket = bucketIndex(key, buckets.length);
+		BucketNode<K,V> node = findNode(buckets[targetBucket].iterator(), key);
+		return node == null ? defaultValue : node.getValue();
+	}
+
+	/**
+	 * Adds or replaces the entry. An existing node is updated in place,
+	 * so the bucket is only scanned once.
+	 */
+	@Override
+	public V put(K key, V value) {
+		if(key == null || value == null) throw new IllegalArgumentException("Invalid parameters");
+		int targetBucket = bucketIndex(key, buckets.length);
 		List<BucketNode<K,V>> bucket = buckets[targetBucket];
-		for (BucketNode<K, V> bucketNode : bucket) {
-			if(bucketNode.getKey().equals(key)) return bucketNode.getValue();
+		BucketNode<K,V> node = findNode(bucket.iterator(), key);
+		if(node != null) {
+			V oldValue = node.getValue();
+			node.setValue(value);
+			return oldValue;
 		}
+		addNode(bucket, key, value);
 		return null;
 	}
 
 	@Override
-	public V put(K key, V value) {
+	public V putIfAbsent(K key, V value) {
 		if(key == null || value == null) throw new IllegalArgumentException("Invalid parameters");
-		V oldValue = remove(key);
-		int targetBucket = hashFunction.hashCode(key) % buckets.length;
+		int targetBucket = bucketIndex(key, buckets.length);
 		List<BucketNode<K,V>> bucket = buckets[targetBucket];
-		bucket.add(0, new BucketNode<>(key, value));
-		currentSize++;
-		return oldValue;
+		BucketNode<K,V> node = findNode(bucket.iterator(), key);
+		if(node != null) return node.getValue();
+		addNode(bucket, key, value);
+		return null;
 	}
 
 	@Override
-	public V remove(K key) {
-		if(key == null) throw new IllegalArgumentException("Invalid parameter");
-		int targetBucket = hashFunction.hashCode(key) % buckets.length;	
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		if(key == null || remappingFunction == null) throw new IllegalArgumentException("Invalid parameters");
+		int targetBucket = bucketIndex(key, buckets.length);
 		List<BucketNode<K,V>> bucket = buckets[targetBucket];
-		
-		int pos = 0;
-		for (BucketNode<K, V> bucketNode : bucket) {
-			if (bucketNode.getKey().equals(key)) {
-				bucket.remove(pos);
-				currentSize--;
-				return bucketNode.getValue();
-			} else pos++;
+		Iterator<BucketNode<K,V>> chain = bucket.iterator();
+		BucketNode<K,V> node = findNode(chain, key);
+		V newValue = remappingFunction.apply(key, node == null ? null : node.getValue());
+		if(node == null) {
+			if(newValue != null) addNode(bucket, key, newValue);
 		}
-		
-		return null;
+		else if(newValue == null) removeNode(chain);
+		else node.setValue(newValue);
+		return newValue;
+	}
+
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		if(key == null || value == null || remappingFunction == null) throw new IllegalArgumentException("Invalid parameters");
+		int targetBucket = bucketIndex(key, buckets.length);
+		List<BucketNode<K,V>> bucket = buckets[targetBucket];
+		Iterator<BucketNode<K,V>> chain = bucket.iterator();
+		BucketNode<K,V> node = findNode(chain, key);
+		if(node == null) {
+			addNode(bucket, key, value);
+			return value;
+		}
+		V newValue = remappingFunction.apply(node.getValue(), value);
+		if(newValue == null) removeNode(chain);
+		else node.setValue(newValue);
+		return newValue;
+	}
+
+	@Override
+	public V remove(K key) {
+		if(key == null) throw new IllegalArgumentException("Invalid parameter");
+		int targetBucket = bucketIndex(key, buckets.length);	
+		Iterator<BucketNode<K,V>> chain = buckets[targetBucket].iterator();
+		BucketNode<K,V> node = findNode(chain, key);
+		if(node == null) return null;
+		removeNode(chain);
+		return node.getValue();
 	}
 
 	@Override
@@ -100,6 +267,8 @@ public class HashTableSC<K, V> implements Map<K, V> {
 		for (List<BucketNode<K, V>> list : buckets) {
 			list.clear();
 		}
+		if(shrinkable && buckets.length != initialCapacity)
+			buckets = newBuckets(initialCapacity);
 	}
 
 	@Override
@@ -126,11 +295,35 @@ public class HashTableSC<K, V> implements Map<K, V> {
 		return result;
 	}
 
+	@Override
+	public Iterable<K> keys() {
+		return () -> new KeyIterator();
+	}
+
+	@Override
+	public Iterable<V> values() {
+		return () -> new ValueIterator();
+	}
+
+	@Override
+	public Iterable<Entry<K, V>> entries() {
+		return () -> new EntryIterator();
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		for (List<BucketNode<K, V>> bucket : buckets) {
+			for (BucketNode<K, V> bucketNode : bucket) {
+				action.accept(bucketNode.getKey(), bucketNode.getValue());
+			}
+		}
+	}
+
 	@Override
 	public String toString() {
 		String str = "{ ";
-		for (K key : this.getKeys()) {
-			str += "(" + key + ", " + this.get(key) + ") ";
+		for (Entry<K, V> entry : this.entries()) {
+			str += "(" + entry.getKey() + ", " + entry.getValue() + ") ";
 		}
 		return str + "}";
 	}
@@ -140,4 +333,73 @@ public class HashTableSC<K, V> implements Map<K, V> {
 
 	}
 
+	/**
+	 * Walks the bucket array and the chain of each non-empty bucket, returning the BucketNodes themselves.
+	 * The keys and values iterators just take the key or value of each node.
+	 */
+	private class EntryIterator implements Iterator<Entry<K,V>> {
+		// Next bucket to look at
+		private int nextBucket;
+		// Iterator of the bucket we are currently walking
+		private Iterator<BucketNode<K,V>> current;
+		
+		public EntryIterator() {
+			this.nextBucket = 0;
+			this.current = null;
+			advance();
+		}
+		
+		/**
+		 * Moves to the next non-empty bucket if the current one is done.
+		 */
+		private void advance() {
+			while((current == null || !current.hasNext()) && nextBucket < buckets.length) {
+				List<BucketNode<K,V>> bucket = buckets[nextBucket++];
+				current = bucket.isEmpty() ? null : bucket.iterator();
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return current != null && current.hasNext();
+		}
+
+		@Override
+		public BucketNode<K,V> next() {
+			if(!hasNext())
+				throw new NoSuchElementException();
+			BucketNode<K,V> node = current.next();
+			advance();
+			return node;
+		}
+	}
+	
+	private class KeyIterator implements Iterator<K> {
+		private EntryIterator entries = new EntryIterator();
+
+		@Override
+		public boolean hasNext() {
+			return entries.hasNext();
+		}
+
+		@Override
+		public K next() {
+			return entries.next().getKey();
+		}
+	}
+	
+	private class ValueIterator implements Iterator<V> {
+		private EntryIterator entries = new EntryIterator();
+
+		@Override
+		public boolean hasNext() {
+			return entries.hasNext();
+		}
+
+		@Override
+		public V next() {
+			return entries.next().getValue();
+		}
+	}
+
 }
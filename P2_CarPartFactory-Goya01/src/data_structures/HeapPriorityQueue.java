@@ -0,0 +1,132 @@
+package data_structures;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+import interfaces.PriorityQueue;
+
+/**
+ * Priority queue implemented with a binary min-heap stored in an array.
+ * Instead of the order of arrival, the front is always the smallest value according to the comparator.
+ *
+ * The children of position i are at 2i + 1 and 2i + 2, and every value is smaller than or equal to
+ * its children. enqueue and dequeue are O(log n), front is O(1).
+ *
+ * @param <E>
+ */
+@SuppressWarnings("unchecked")
+public class HeapPriorityQueue<E> implements PriorityQueue<E> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	// Will hold the heap
+	private E[] elements;
+	private int size;
+	// Decides which value has higher priority (the smaller one)
+	private Comparator<? super E> comparator;
+
+	public HeapPriorityQueue(Comparator<? super E> comparator) {
+		this(DEFAULT_CAPACITY, comparator);
+	}
+
+	/**
+	 * Creates an empty priority queue.
+	 * @param initialCapacity - (int) initial length of the array
+	 * @param comparator - (Comparator<E>) the front is the smallest value according to this comparator
+	 */
+	public HeapPriorityQueue(int initialCapacity, Comparator<? super E> comparator) {
+		if(initialCapacity < 1)
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		if(comparator == null)
+			throw new IllegalArgumentException("Must provide a comparator");
+		this.elements = (E[]) new Object[initialCapacity];
+		this.size = 0;
+		this.comparator = comparator;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void clear() {
+		for(int i = 0; i < size; i++)
+			elements[i] = null;
+		size = 0;
+	}
+
+	/**
+	 * Adds obj to the heap. It's placed at the end and moved up until its parent is not bigger.
+	 */
+	@Override
+	public void enqueue(E obj) {
+		if(obj == null)
+			throw new IllegalArgumentException();
+		if(size == elements.length) {
+			E[] temp = (E[]) new Object[elements.length * 2];
+			System.arraycopy(elements, 0, temp, 0, size);
+			elements = temp;
+		}
+		// Move parents down until we find the spot of obj
+		int i = size++;
+		while(i > 0) {
+			int parent = (i - 1) / 2;
+			if(comparator.compare(obj, elements[parent]) >= 0)
+				break;
+			elements[i] = elements[parent];
+			i = parent;
+		}
+		elements[i] = obj;
+	}
+
+	/**
+	 * Removes the smallest value. The last value takes its place and is moved down
+	 * until none of its children is smaller.
+	 */
+	@Override
+	public E dequeue() {
+		if(this.isEmpty())
+			throw new NoSuchElementException();
+		E result = elements[0];
+		E last = elements[--size];
+		elements[size] = null;
+		if(size > 0) {
+			// Move the smaller child up until we find the spot of last
+			int i = 0;
+			int half = size / 2;
+			while(i < half) {
+				int child = 2 * i + 1;
+				if(child + 1 < size && comparator.compare(elements[child + 1], elements[child]) < 0)
+					child++;
+				if(comparator.compare(last, elements[child]) <= 0)
+					break;
+				elements[i] = elements[child];
+				i = child;
+			}
+			elements[i] = last;
+		}
+		return result;
+	}
+
+	@Override
+	public E front() {
+		if(this.isEmpty())
+			throw new NoSuchElementException();
+		return elements[0];
+	}
+
+	@Override
+	public String toString() {
+		String str = "{ ";
+		for(int i = 0; i < size; i++)
+			str += elements[i] + " ";
+		return str + "}";
+	}
+
+}
@@ -0,0 +1,395 @@
+package data_structures;
+
+import java.io.PrintStream;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import interfaces.Entry;
+import interfaces.List;
+import interfaces.Map;
+
+/**
+ * Map from int to int that stores its keys and values in primitive arrays, so nothing gets boxed.
+ * It uses open addressing with linear probing, same as HashTableLP (the probing math is shared through
+ * LinearProbing), and a boolean array to mark which slots are taken (any int, including 0, is a valid key).
+ *
+ * It still implements Map<Integer, Integer> so it can be used anywhere the regular maps are, but
+ * the int versions of the methods (getInt, putInt, addTo, increment, getOrDefault, removeKey) are the
+ * ones that don't allocate. They have their own names because they can't return null for a missing
+ * key like the Map methods do, so m.get(5) means the same thing whatever the static type of m is.
+ */
+public class IntIntMap implements Map<Integer, Integer> {
+
+	private static final double LOAD_FACTOR = 0.5;
+
+	private int[] keys;
+	private int[] values;
+	// used[i] is true if slot i holds an entry
+	private boolean[] used;
+	private int currentSize;
+	// Size at which we have to grow
+	private int threshold;
+
+	public IntIntMap() {
+		this(16);
+	}
+
+	/**
+	 * Creates a map with at least initialCapacity slots (rounded up to a power of two).
+	 * @param initialCapacity - (int) minimum number of slots to start with
+	 */
+	public IntIntMap(int initialCapacity) {
+		if(initialCapacity < 1) throw new IllegalArgumentException("Size must be at least 1");
+		allocate(LinearProbing.tableSizeFor(initialCapacity));
+		this.currentSize = 0;
+	}
+
+	/**
+	 * Creates a map with the smallest table that holds the given number of entries without growing.
+	 * @param expectedSize - (int) number of entries the map will hold
+	 * @return (IntIntMap) the new map
+	 */
+	public static IntIntMap withExpectedSize(int expectedSize) {
+		int capacity = LinearProbing.tableSizeFor(Math.max(1, (int) Math.ceil(expectedSize / LOAD_FACTOR)));
+		while(LinearProbing.threshold(capacity, LOAD_FACTOR) < expectedSize)
+			capacity <<= 1;
+		return new IntIntMap(capacity);
+	}
+	
+	private void allocate(int capacity) {
+		this.keys = new int[capacity];
+		this.values = new int[capacity];
+		this.used = new boolean[capacity];
+		this.threshold = LinearProbing.threshold(capacity, LOAD_FACTOR);
+	}
+
+	/**
+	 * Home slot of a key. The key is mixed so sequential ids don't end up in one cluster.
+	 */
+	private int slot(int key) {
+		return LinearProbing.slot(key, keys.length - 1);
+	}
+
+	/**
+	 * Finds the slot that holds key.
+	 * @return (int) slot of the key, -1 if not present
+	 */
+	private int find(int key) {
+		int mask = keys.length - 1;
+		for(int i = slot(key); used[i]; i = LinearProbing.next(i, mask)) {
+			if(keys[i] == key) return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Finds the slot for key, claiming an empty one (with value 0) if the key isn't present.
+	 * @return (int) slot that now holds key
+	 */
+	private int findOrInsert(int key) {
+		int mask = keys.length - 1;
+		int i = slot(key);
+		while(used[i]) {
+			if(keys[i] == key) return i;
+			i = LinearProbing.next(i, mask);
+		}
+		if(currentSize + 1 > threshold) {
+			resize();
+			return findOrInsert(key);
+		}
+		used[i] = true;
+		keys[i] = key;
+		values[i] = 0;
+		currentSize++;
+		return i;
+	}
+
+	/**
+	 * Empties slot i, moving back the later entries of its cluster (see HashTableLP.removeAt).
+	 */
+	private void removeAt(int i) {
+		int mask = keys.length - 1;
+		int hole = i;
+		int j = LinearProbing.next(i, mask);
+		while(used[j]) {
+			if(LinearProbing.fillsHole(hole, j, slot(keys[j]), mask)) {
+				keys[hole] = keys[j];
+				values[hole] = values[j];
+				hole = j;
+			}
+			j = LinearProbing.next(j, mask);
+		}
+		used[hole] = false;
+		currentSize--;
+	}
+
+	/**
+	 * Doubles the arrays and puts every entry back in its new slot.
+	 */
+	private void resize() {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate(oldKeys.length * 2);
+		int mask = keys.length - 1;
+		for(int j = 0; j < oldKeys.length; j++) {
+			if(!oldUsed[j]) continue;
+			int i = slot(oldKeys[j]);
+			while(used[i])
+				i = LinearProbing.next(i, mask);
+			used[i] = true;
+			keys[i] = oldKeys[j];
+			values[i] = oldValues[j];
+		}
+	}
+
+	/**
+	 * Returns the value of key or defaultValue if the key is not present.
+	 * @param key - (int) key to look up
+	 * @param defaultValue - (int) value returned when key is missing
+	 * @return (int) value of key
+	 */
+	public int getOrDefault(int key, int defaultValue) {
+		int i = find(key);
+		return i == -1 ? defaultValue : values[i];
+	}
+
+	/**
+	 * Returns the value of key, 0 if the key is not present (get(Integer) returns null instead).
+	 */
+	public int getInt(int key) {
+		return getOrDefault(key, 0);
+	}
+
+	/**
+	 * Sets the value of key.
+	 * @return (int) the old value, 0 if the key wasn't present (put(Integer, Integer) returns null instead)
+	 */
+	public int putInt(int key, int value) {
+		int i = findOrInsert(key);
+		int oldValue = values[i];
+		values[i] = value;
+		return oldValue;
+	}
+
+	/**
+	 * Adds delta to the value of key. Missing keys start at 0.
+	 * @param key - (int) key to update
+	 * @param delta - (int) amount to add
+	 * @return (int) the new value
+	 */
+	public int addTo(int key, int delta) {
+		int i = findOrInsert(key);
+		return values[i] += delta;
+	}
+
+	/**
+	 * Adds one to the value of key. Missing keys start at 0.
+	 * @return (int) the new value
+	 */
+	public int increment(int key) {
+		return addTo(key, 1);
+	}
+
+	public boolean containsKey(int key) {
+		return find(key) != -1;
+	}
+
+	/**
+	 * Removes key from the map.
+	 * @return (boolean) true if the key was present
+	 */
+	public boolean removeKey(int key) {
+		int i = find(key);
+		if(i == -1) return false;
+		removeAt(i);
+		return true;
+	}
+
+	@Override
+	public int size() {
+		return currentSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public Integer get(Integer key) {
+		if(key == null) throw new IllegalArgumentException("Invalid parameter");
+		int i = find(key);
+		return i == -1 ? null : values[i];
+	}
+
+	@Override
+	public Integer put(Integer key, Integer value) {
+		if(key == null || value == null) throw new IllegalArgumentException("Invalid parameters");
+		// findOrInsert only changes the size when the key was missing
+		int sizeBefore = currentSize;
+		int i = findOrInsert(key);
+		Integer oldValue = currentSize == sizeBefore ? values[i] : null;
+		values[i] = value;
+		return oldValue;
+	}
+
+	@Override
+	public Integer getOrDefault(Integer key, Integer defaultValue) {
+		if(key == null) throw new IllegalArgumentException("Invalid parameter");
+		int i = find(key);
+		return i == -1 ? defaultValue : values[i];
+	}
+
+	@Override
+	public Integer putIfAbsent(Integer key, Integer value) {
+		if(key == null || value == null) throw new IllegalArgumentException("Invalid parameters");
+		int sizeBefore = currentSize;
+		int i = findOrInsert(key);
+		if(currentSize == sizeBefore) return values[i];
+		values[i] = value;
+		return null;
+	}
+
+	@Override
+	public Integer compute(Integer key, BiFunction<? super Integer, ? super Integer, ? extends Integer> remappingFunction) {
+		if(key == null || remappingFunction == null) throw new IllegalArgumentException("Invalid parameters");
+		int i = find(key);
+		Integer newValue = remappingFunction.apply(key, i == -1 ? null : values[i]);
+		if(newValue == null) {
+			if(i != -1) removeAt(i);
+		}
+		else {
+			// Insert first, findOrInsert may resize and replace the values array
+			if(i == -1) i = findOrInsert(key);
+			values[i] = newValue;
+		}
+		return newValue;
+	}
+
+	@Override
+	public Integer merge(Integer key, Integer value, BiFunction<? super Integer, ? super Integer, ? extends Integer> remappingFunction) {
+		if(key == null || value == null || remappingFunction == null) throw new IllegalArgumentException("Invalid parameters");
+		int sizeBefore = currentSize;
+		int i = findOrInsert(key);
+		if(currentSize != sizeBefore) {
+			values[i] = value;
+			return value;
+		}
+		Integer newValue = remappingFunction.apply(values[i], value);
+		if(newValue == null) removeAt(i);
+		else values[i] = newValue;
+		return newValue;
+	}
+
+	@Override
+	public Integer remove(Integer key) {
+		if(key == null) throw new IllegalArgumentException("Invalid parameter");
+		int i = find(key);
+		if(i == -1) return null;
+		int oldValue = values[i];
+		removeAt(i);
+		return oldValue;
+	}
+
+	@Override
+	public boolean containsKey(Integer key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public void clear() {
+		for(int i = 0; i < used.length; i++)
+			used[i] = false;
+		currentSize = 0;
+	}
+
+	@Override
+	public List<Integer> getKeys() {
+		List<Integer> result = new SinglyLinkedList<>();
+		for(int i = 0; i < keys.length; i++) {
+			if(used[i])
+				result.add(0, keys[i]);
+		}
+		return result;
+	}
+
+	@Override
+	public List<Integer> getValues() {
+		List<Integer> result = new SinglyLinkedList<>();
+		for(int i = 0; i < keys.length; i++) {
+			if(used[i])
+				result.add(0, values[i]);
+		}
+		return result;
+	}
+
+	@Override
+	public Iterable<Integer> keys() {
+		return () -> new Slots<Integer>() {
+			@Override
+			protected Integer valueAt(int i) {
+				return keys[i];
+			}
+		};
+	}
+
+	@Override
+	public Iterable<Integer> values() {
+		return () -> new Slots<Integer>() {
+			@Override
+			protected Integer valueAt(int i) {
+				return values[i];
+			}
+		};
+	}
+
+	@Override
+	public Iterable<Entry<Integer, Integer>> entries() {
+		return () -> new Slots<Entry<Integer, Integer>>() {
+			@Override
+			protected Entry<Integer, Integer> valueAt(int i) {
+				return new MapEntry<>(keys[i], values[i]);
+			}
+		};
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super Integer, ? super Integer> action) {
+		for(int i = 0; i < keys.length; i++) {
+			if(used[i])
+				action.accept(keys[i], values[i]);
+		}
+	}
+
+	@Override
+	public String toString() {
+		String str = "{ ";
+		for(int i = 0; i < keys.length; i++) {
+			if(used[i])
+				str += "(" + keys[i] + ", " + values[i] + ") ";
+		}
+		return str + "}";
+	}
+
+	@Override
+	public void print(PrintStream out) {
+		out.println(this);
+	}
+
+	/**
+	 * Iterates over the used slots, subclasses decide what to return for each one (key, value or entry).
+	 */
+	private abstract class Slots<T> extends SlotIterator<T> {
+		@Override
+		protected int capacity() {
+			return used.length;
+		}
+
+		@Override
+		protected boolean isUsed(int i) {
+			return used[i];
+		}
+	}
+
+}
@@ -0,0 +1,66 @@
+package data_structures;
+
+/**
+ * Arithmetic shared by the tables that use open addressing with linear probing (HashTableLP and IntIntMap).
+ * Both keep a power of two number of slots, look for a key starting at its home slot and going to
+ * the next one (wrapping around), and remove with backward shifting. They only differ in how they
+ * store the entries and mark an empty slot, so the loops stay in each table and the math lives here.
+ */
+final class LinearProbing {
+
+	private LinearProbing() {
+
+	}
+
+	/**
+	 * Smallest power of two that is >= capacity.
+	 */
+	static int tableSizeFor(int capacity) {
+		int n = 1;
+		while(n < capacity && n < (1 << 30))
+			n <<= 1;
+		return n;
+	}
+
+	/**
+	 * Size at which a table with the given capacity has to grow.
+	 * At least one slot must stay empty or a failed search would never end.
+	 */
+	static int threshold(int capacity, double loadFactor) {
+		return Math.min(capacity - 1, (int) (capacity * loadFactor));
+	}
+
+	/**
+	 * Home slot of a hash. The hash is mixed first because hash functions like BasicHashFunction
+	 * return the key itself, and masking only keeps the low bits.
+	 * @param hash - (int) hash of the key
+	 * @param mask - (int) number of slots - 1
+	 * @return (int) slot where the search for the key starts
+	 */
+	static int slot(int hash, int mask) {
+		int h = hash * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	/**
+	 * Slot after i, wrapping around to 0 after the last one.
+	 */
+	static int next(int i, int mask) {
+		return (i + 1) & mask;
+	}
+
+	/**
+	 * Checks if the entry at slot j, whose home slot is home, can be moved back to the hole left by a removal.
+	 * It can unless its home is after the hole (counting from the hole and wrapping around), because then
+	 * a search for it would start after the hole and never find it there.
+	 * @param hole - (int) empty slot before j in the cluster
+	 * @param j - (int) slot of the entry
+	 * @param home - (int) home slot of the entry
+	 * @param mask - (int) number of slots - 1
+	 * @return (boolean) true if the entry has to move to the hole
+	 */
+	static boolean fillsHole(int hole, int j, int home, int mask) {
+		// Distance from home to j and from the hole to j (both wrap around)
+		return ((j - home) & mask) >= ((j - hole) & mask);
+	}
+}
@@ -1,6 +1,7 @@
 package data_structures;
 
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 import interfaces.Stack;
 
@@ -155,6 +156,15 @@ public class LinkedStack<E> implements Stack<E> {
 		
 	}
 
+	/**
+	 * Pops every item and gives it to consumer.
+	 */
+	@Override
+	public void drainTo(Consumer<? super E> consumer) {
+		while(!isEmpty())
+			consumer.accept(pop());
+	}
+
 	@Override
 	public String toString() {
 		String str = "{ ";
@@ -0,0 +1,34 @@
+package data_structures;
+
+import interfaces.Entry;
+
+/**
+ * Simple key/value pair, used by the Maps that don't store their entries as objects.
+ *
+ * @param <K>
+ * @param <V>
+ */
+class MapEntry<K, V> implements Entry<K, V> {
+	private K key;
+	private V value;
+	
+	public MapEntry(K key, V value) {
+		this.key = key;
+		this.value = value;
+	}
+
+	@Override
+	public K getKey() {
+		return key;
+	}
+
+	@Override
+	public V getValue() {
+		return value;
+	}
+	
+	@Override
+	public String toString() {
+		return "(" + key + ", " + value + ")";
+	}
+}
@@ -74,15 +74,18 @@ public class SinglyLinkedList<E> implements List<E>{
 	
 	// Represent the first node in the list
 	private Node<E> head;
+	// Represent the last node in the list, so appending doesn't have to walk the whole chain
+	private Node<E> tail;
 	// Tracks the current size of the list
 	private int size;
 	
 
 	/**
-	 * Creates an empty list. Head starts as null since there is no data yet. Size is 0.
+	 * Creates an empty list. Head and tail start as null since there is no data yet. Size is 0.
 	 */
 	public SinglyLinkedList() {
 		this.head = null;
+		this.tail = null;
 		this.size = 0;
 	}
 	
@@ -101,7 +104,7 @@ public class SinglyLinkedList<E> implements List<E>{
 
 	/**
 	 * Adds a new element to the list. In this case we appends a node with the value obj
-	 * to the end of the chain
+	 * to the end of the chain. Since we keep a reference to the last node (tail) this is O(1).
 	 */
 	@Override
 	public void add(E obj) {
@@ -112,15 +115,11 @@ public class SinglyLinkedList<E> implements List<E>{
 		if(head == null)
 			head = newNode;
 		else {
-			// Lets search for the last node in the list
-			Node<E> temp = head;
-			while(temp.getNext() != null) {
-				temp = temp.getNext();
-			}
 			// Set the next of the last node to the new node.
 			// We now have a new last node
-			temp.setNext(newNode);
+			tail.setNext(newNode);
 		}
+		tail = newNode;
 		this.size++;
 		
 	}
@@ -164,6 +163,9 @@ public class SinglyLinkedList<E> implements List<E>{
 			newNode.setNext(head);
 			// Make head point to the new node since it is now the first node
 			head = newNode;
+			// If the list was empty this is also the last node
+			if(tail == null)
+				tail = newNode;
 		}
 		// If index is any position other than 0
 		else {
@@ -202,6 +204,9 @@ public class SinglyLinkedList<E> implements List<E>{
 			
 			// The new next of the previous node is now new node
 			previousNode.setNext(newNode);
+			// Added after the last node, it is now the last node
+			if(previousNode == tail)
+				tail = newNode;
 
 		}
 		this.size++;
@@ -248,7 +253,7 @@ public class SinglyLinkedList<E> implements List<E>{
 	@Override
 	public boolean remove(int index) {
 		// Check index is valid
-		if(index < 0 || index > size)
+		if(index < 0 || index >= size)
 			throw new IndexOutOfBoundsException();
 		// If it's the first node
 		if(index == 0) {
@@ -259,6 +264,9 @@ public class SinglyLinkedList<E> implements List<E>{
 			 * Notice this still works if there is only one node. 
 			 */
 			this.head = this.head.getNext();
+			// If it was the only node the list has no last node anymore
+			if(holdNode == tail)
+				tail = null;
 			// Help gc
 			holdNode.clear();
 		}
@@ -285,6 +293,9 @@ public class SinglyLinkedList<E> implements List<E>{
 			Node<E> nodeToRemove = previousNode.getNext();
 			// Update references
 			previousNode.setNext(nodeToRemove.getNext());
+			// If we removed the last node, the one before it is the new last node
+			if(nodeToRemove == tail)
+				tail = previousNode;
 			// Help GC
 			nodeToRemove.clear();
 		}
@@ -358,7 +369,8 @@ public class SinglyLinkedList<E> implements List<E>{
 		while(!isEmpty()) remove(0);
 		// Reset values for empty list
 		size = 0;
-		head = null;		
+		head = null;
+		tail = null;
 	}
 
 	/**
@@ -401,6 +413,8 @@ public class SinglyLinkedList<E> implements List<E>{
 				currentNode = currentNode.getNext();
 			}
 		}
+		// The last node we kept is the new last node (null if we removed everything)
+		tail = previousNode;
 		return count;
 	}
 	
@@ -453,7 +467,7 @@ public class SinglyLinkedList<E> implements List<E>{
 	public E last() {
 		if(this.isEmpty())
 			throw new NoSuchElementException();
-		return this.get(size-1);
+		return this.tail.getElement();
 	}
 	/**
 	 * Returns a String version of the SinglyLinkedList. 
@@ -481,23 +495,27 @@ public class SinglyLinkedList<E> implements List<E>{
 	@Override
 	public Iterator<E> iterator() {
 		// TODO Auto-generated method stub
-		return new LinkedListIterator<E>();
+		return new LinkedListIterator();
 	}
 	/**
 	 * This class implements an Iterator for the LinkedList implemented here.
+	 * It remembers the node before the last one returned, so remove() unlinks it without walking the list again.
 	 *  
 	 * @author Gretchen Bonilla
-	 *
-	 * @param <E>
 	 */
-	private class LinkedListIterator<E> implements Iterator<E> {
+	private class LinkedListIterator implements Iterator<E> {
 		// For keeping track of the current node of the list
 		private Node<E> currentNode;
+		// Node returned by the last call to next(), null if there is none or it was removed
+		private Node<E> lastNode;
+		// Node before lastNode, null if lastNode is the head
+		private Node<E> previousNode;
 		
-		@SuppressWarnings("unchecked")
 		public LinkedListIterator() {
 			// We start at the head node
-			currentNode = (Node<E>) head;
+			currentNode = head;
+			lastNode = null;
+			previousNode = null;
 		}
 
 		/**
@@ -514,6 +532,10 @@ public class SinglyLinkedList<E> implements List<E>{
 		 */
 		@Override
 		public E next() {
+			// The node we returned last is now the one before the node we return
+			if(lastNode != null)
+				previousNode = lastNode;
+			lastNode = currentNode;
 			// Get the current value
 			E value = currentNode.getElement();
 			// Move to next node
@@ -521,6 +543,28 @@ public class SinglyLinkedList<E> implements List<E>{
 			return value;
 		}
 		
+		/**
+		 * Removes the node returned by the last call to next(). O(1) since we kept the node before it.
+		 * @throws IllegalStateException if next() wasn't called or the node was already removed
+		 */
+		@Override
+		public void remove() {
+			if(lastNode == null)
+				throw new IllegalStateException();
+			// Link the node before it to the node after it
+			if(previousNode == null)
+				head = currentNode;
+			else
+				previousNode.setNext(currentNode);
+			// If we removed the last node, the one before it is the new last node
+			if(lastNode == tail)
+				tail = previousNode;
+			// Help GC
+			lastNode.clear();
+			lastNode = null;
+			size--;
+		}
+		
 	}
 
 }
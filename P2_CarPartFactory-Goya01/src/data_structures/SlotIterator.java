@@ -0,0 +1,46 @@
+package data_structures;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over the slots of an array based table that stops only at the slots that hold an entry.
+ * The table says how many slots there are and which ones are used, and what to return for each
+ * slot (the key, the value or the entry).
+ *
+ * @param <T>
+ */
+abstract class SlotIterator<T> implements Iterator<T> {
+
+	// Slot where the search for the next entry starts
+	private int position = 0;
+
+	/**
+	 * Number of slots of the table.
+	 */
+	protected abstract int capacity();
+
+	/**
+	 * Checks if slot i holds an entry.
+	 */
+	protected abstract boolean isUsed(int i);
+
+	/**
+	 * What the iterator returns for slot i.
+	 */
+	protected abstract T valueAt(int i);
+
+	@Override
+	public boolean hasNext() {
+		while(position < capacity() && !isUsed(position))
+			position++;
+		return position < capacity();
+	}
+
+	@Override
+	public T next() {
+		if(!hasNext())
+			throw new NoSuchElementException();
+		return valueAt(position++);
+	}
+}
@@ -1,6 +1,8 @@
 package interfaces;
 
 import java.io.PrintStream;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 /**
  * 
  * @author Fernando J Bermudez (bermed28)
@@ -17,4 +19,66 @@ public interface Map<K,V> {
 	public List<K> getKeys();
 	public List<V> getValues();
 	public void print(PrintStream out);
+	
+	/**
+	 * Returns the value of key, or defaultValue if the key is not in the Map.
+	 * @param key - key to look up
+	 * @param defaultValue - value returned when key is missing
+	 * @return (V) value of key or defaultValue
+	 */
+	public V getOrDefault(K key, V defaultValue);
+	
+	/**
+	 * Adds the entry only if the key is not in the Map yet.
+	 * @param key - key to add
+	 * @param value - value to add
+	 * @return (V) the value already present, null if the entry was added
+	 */
+	public V putIfAbsent(K key, V value);
+	
+	/**
+	 * Replaces the value of key with the result of remappingFunction(key, oldValue).
+	 * oldValue is null if the key is missing. If the function returns null the entry is removed.
+	 * @param key - key to update
+	 * @param remappingFunction - function that computes the new value
+	 * @return (V) the new value, null if there is none
+	 */
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction);
+	
+	/**
+	 * Adds the entry if the key is missing, otherwise replaces its value with
+	 * remappingFunction(oldValue, value). If the function returns null the entry is removed.
+	 * Useful for counters: merge(id, 1, Integer::sum).
+	 * @param key - key to update
+	 * @param value - value to add if key is missing, and second argument of the function otherwise
+	 * @param remappingFunction - function that combines the old value with value
+	 * @return (V) the new value, null if there is none
+	 */
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction);
+	
+	/**
+	 * Live view of the keys. Unlike getKeys() nothing is copied, the iterator walks the table
+	 * directly, so the Map must not be modified while iterating.
+	 * @return (Iterable<K>) the keys of the Map
+	 */
+	public Iterable<K> keys();
+	
+	/**
+	 * Live view of the values, see keys().
+	 * @return (Iterable<V>) the values of the Map
+	 */
+	public Iterable<V> values();
+	
+	/**
+	 * Live view of the entries, see keys(). Gives the key and value together so there is
+	 * no need to call get() for every key.
+	 * @return (Iterable<Entry<K,V>>) the entries of the Map
+	 */
+	public Iterable<Entry<K,V>> entries();
+	
+	/**
+	 * Calls action with the key and value of every entry.
+	 * @param action - function that receives each key and value
+	 */
+	public void forEach(BiConsumer<? super K, ? super V> action);
 }
\ No newline at end of file
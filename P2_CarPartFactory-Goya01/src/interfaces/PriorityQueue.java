@@ -0,0 +1,45 @@
+package interfaces;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Queue where values don't leave in the order they arrive, the front is always the value
+ * with the highest priority (the smallest one according to the order the implementation uses).
+ * Values with the same priority can leave in any order.
+ *
+ * @param <E>
+ */
+public interface PriorityQueue<E> {
+	/**
+	 * Returns how many items are in the PriorityQueue
+	 * @return (int) Number of values in the PriorityQueue
+	 */
+	public int size();
+	/**
+	 * Check whether the PriorityQueue is empty, true if it is, false otherwise
+	 * @return (boolean) whether the PriorityQueue is empty
+	 */
+	public boolean isEmpty();
+	/**
+	 * Removes everything from the PriorityQueue
+	 */
+	public void clear();
+	/**
+	 * Adds a new value to the PriorityQueue, its place depends on its priority and not on when it arrived.
+	 * @param obj - (E) The item to add
+	 * @throws IllegalArgumentException
+	 */
+	public void enqueue(E obj);
+	/**
+	 * Removes and returns the item with the highest priority.
+	 * @return (E) Item removed
+	 * @throws NoSuchElementException
+	 */
+	public E dequeue();
+	/**
+	 * Returns the item with the highest priority without removing it.
+	 * @return (E) Item at the front
+	 * @throws NoSuchElementException
+	 */
+	public E front();
+}
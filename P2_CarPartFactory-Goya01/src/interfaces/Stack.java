@@ -1,6 +1,7 @@
 package interfaces;
 
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 public interface Stack<E> {
 	/**
@@ -35,5 +36,10 @@ public interface Stack<E> {
 	 * Empties the Stack, by removing everything.
 	 */
 	public void clear();
+	/**
+	 * Empties the Stack, giving every item to consumer in the order pop() would return them.
+	 * @param consumer - receives each removed item
+	 */
+	public void drainTo(Consumer<? super E> consumer);
 
 }
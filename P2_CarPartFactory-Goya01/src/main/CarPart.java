@@ -1,41 +1,60 @@
-
 /*
 * This class represents a car part. It has the following attributes:
-* id: The unique id of the part
-* name: The name of the part
+* type: The type of the part (its id and name), shared with every part of the same kind (see PartType)
 * weight: The weight of the part
 * isDefective: A boolean value indicating whether the part is defective or not
-* Implemented getters and setters for all the attributes.
+* Implemented getters and setters for all the attributes. Changing the id or name to a different value gives the part
+* a type of its own, so the parts that shared the old type are not affected. Setting the value it already has keeps
+* the shared type. A part made with the empty constructor has no type
+* until its id or name is set, its id is 0 and its name null like before.
 */
 package main;
 
+import java.util.Objects;
+
 public class CarPart { 
-    private int id;
-    private String name;
+    private PartType type;
     private double weight;
     private boolean isDefective;
 
     public CarPart() {
+
     }
 
     public CarPart(int id, String name, double weight, boolean isDefective) {
-        this.id = id;
-        this.name = name;
+        this(new PartType(id, name, weight), weight, isDefective);
+    }
+
+    /**
+    * Creates a part of the given type, only the weight and whether it's defective belong to this part.
+    * @param type (PartType) The type of the part
+    * @param weight (double) The weight of the part
+    * @param isDefective (boolean) Whether the part is defective
+    */
+    public CarPart(PartType type, double weight, boolean isDefective) {
+        this.type = type;
         this.weight = weight;
         this.isDefective = isDefective;
     }
 
+    public PartType getType() {
+        return type;
+    }
     public int getId() {
-        return id;
+        return type == null ? 0 : type.getId();
     }
     public void setId(int id) {
-        this.id = id;
+        if(type != null && type.getId() == id)
+            return;
+        this.type = new PartType(id, getName(), type == null ? 0 : type.getWeight());
     }
     public String getName() {
-        return name;
+        return type == null ? null : type.getName();
     }
     public void setName(String name) {
-        this.name = name;
+        if(type != null && Objects.equals(type.getName(), name))
+            return;
+        this.type = new PartType(getId(), name, type == null ? 0 : type.getWeight());
     }
     public double getWeight() {
         return weight;
@@ -50,6 +69,17 @@ public class CarPart {
     public void setDefective(boolean isDefective) {
         this.isDefective = isDefective;
     }
+
+    /**
+    * Checks if other is of the same type as this part. Parts produced from the same catalog part
+    * share their PartType, so this is just a reference check.
+    * @param other (CarPart) The part to compare with
+    * @return (boolean) True if both parts have the same type
+    */
+    public boolean isSameType(CarPart other) {
+        return other != null && this.getType() != null && this.getType() == other.getType();
+    }
+
     /**
     * Returns the parts name as its string representation
     * @return (String) The part name
@@ -4,35 +4,59 @@
 * machines: A list of machines that the factory has
 * orders: A list of orders that the factory has
 * partCatalog: A map of the parts that the factory has. The key is the part id and the value is the part
+*   Every part a machine produces shares the PartType of its catalog part.
 * inventory: A map of the parts that the factory has in its inventory. The key is the part id and the value is a list of parts
 * productionBin: A stack that holds the parts that the factory has produced
-* defectives: A map of the parts that the factory has produced that are defective. The key is the part id and the value is the number of defective parts
+* defectives: A map of the parts that the factory has produced that are defective. The key is the part id and the value is the number of defective parts.
+*   It is kept as an IntIntMap so counting defectives doesn't box, the getter and setter use the Map interface.
+* seed: The seed of the factory, every machine gets its own seed derived from it (see setupMachines)
+* fulfillment: Fulfills the orders at the end of every day when it is set up (see setupOrderFulfillment), null otherwise
+* daysRun: The number of days the factory has run, kept in checkpoints so a run can be resumed (see FactoryCheckpoint)
+* releasedOrders: The number of fulfilled orders a run with an OrderStream took out of the orders list
+* streamedOrders: True once a run read orders from an OrderStream. Checkpoints don't save the position in the stream,
+*   so such a factory can't be checkpointed.
 * Implemented getters and setters for all the attributes.
 */
 
 package main;
 
 import java.io.BufferedReader;
+import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.LinkedList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import data_structures.ArrayList;
+import data_structures.ArrayStack;
 import data_structures.BasicHashFunction;
+import data_structures.CircularArrayList;
 import data_structures.HashTableSC;
-import data_structures.LinkedStack;
+import data_structures.HeapPriorityQueue;
+import data_structures.IntIntMap;
 
+import interfaces.Entry;
 import interfaces.List;
 import interfaces.Map;
+import interfaces.PriorityQueue;
 import interfaces.Stack;
 
 public class CarPartFactory {
+    // Number of machines a parallel task runs by itself before splitting the work (see runFactory(int, int, ForkJoinPool))
+    private static final int MACHINES_PER_TASK = 32;
+
     private List<PartMachine> machines;
     private List<Order> orders;
     private Map<Integer, CarPart> partCatalog;
     private Map<Integer, List<CarPart>> inventory;
     private Stack<CarPart> productionBin;
-    private Map<Integer, Integer> defectives;
+    private IntIntMap defectives;
+    private long seed;
+    private OrderFulfillment fulfillment;
+    private int daysRun;
+    private long releasedOrders;
+    private boolean streamedOrders;
 
     public CarPartFactory() {
         
@@ -47,18 +71,99 @@ public class CarPartFactory {
     */
 
     public CarPartFactory(String orderPath, String partsPath) throws IOException {
+        this(orderPath, partsPath, new SplittableRandom().nextLong());
+    }
+
+    /**
+    * Same as the other constructor but the random weights of the parts come from the given seed.
+    * Factories built with the same seed and files produce exactly the same parts, no matter how they are run.
+    * @param orderPath (String) The path to the orders.csv file, null to start without orders (see OrderStream)
+    * @param partsPath (String) The path to the parts.csv file
+    * @param seed (long) The seed of the factory
+    * @throws IOException if the file is not found
+    */
+
+    public CarPartFactory(String orderPath, String partsPath, long seed) throws IOException {
+        this.seed = seed;
         this.machines = new ArrayList<>();
-        this.productionBin = new LinkedStack<CarPart>();
+        this.productionBin = new ArrayStack<CarPart>();
         this.partCatalog = new HashTableSC<Integer, CarPart>(2, new BasicHashFunction());
         this.inventory = new HashTableSC<Integer, List<CarPart>>(2, new BasicHashFunction());
         this.orders = new ArrayList<>();
-        this.defectives = new HashTableSC<Integer, Integer>(2, new BasicHashFunction());
+        this.defectives = new IntIntMap();
 
         setupMachines(partsPath);
         setupCatalog();
-        setupOrders(orderPath);
+        if (orderPath != null) {
+            setupOrders(orderPath);
+        }
         setupInventory();
     }
+
+    /**
+    * Sets up a factory from a snapshot made with FactorySnapshot.convert() instead of the csv files.
+    * The factory is the same one the csv files would give with the same seed.
+    * @param snapshotPath (String) The path to the snapshot
+    * @param seed (long) The seed of the factory
+    * @return (CarPartFactory) The new factory
+    * @throws IOException if the file is not found or is not a valid snapshot
+    */
+
+    public static CarPartFactory fromSnapshot(String snapshotPath, long seed) throws IOException {
+        CarPartFactory factory = new CarPartFactory();
+        factory.seed = seed;
+        factory.productionBin = new ArrayStack<CarPart>();
+        factory.inventory = new HashTableSC<Integer, List<CarPart>>(2, new BasicHashFunction());
+        factory.defectives = new IntIntMap();
+
+        factory.setupFromSnapshot(snapshotPath);
+        factory.setupCatalog();
+        factory.setupInventory();
+        return factory;
+    }
+
+    /**
+    * Restores a factory from a checkpoint written by writeCheckpoint(). The factory continues exactly where
+    * the saved one was: running it for the days that were left gives the same results as the original run.
+    * @param checkpointPath (String) The path to the checkpoint
+    * @return (CarPartFactory) The restored factory
+    * @throws IOException if the file is not found or is not a valid checkpoint
+    */
+
+    public static CarPartFactory fromCheckpoint(String checkpointPath) throws IOException {
+        FactoryCheckpoint checkpoint = FactoryCheckpoint.load(checkpointPath);
+        CarPartFactory factory = new CarPartFactory();
+        factory.seed = checkpoint.getSeed();
+        factory.daysRun = checkpoint.getDaysRun();
+        factory.machines = checkpoint.getMachines();
+        factory.orders = checkpoint.getOrders();
+        factory.productionBin = checkpoint.getProductionBin();
+        factory.inventory = checkpoint.getInventory();
+        factory.defectives = new IntIntMap();
+
+        factory.setupCatalog();
+        // The catalog starts the counts at 0, use the saved ones instead
+        factory.defectives = checkpoint.getDefectives();
+        if (checkpoint.hasOrderFulfillment()) {
+            factory.setupOrderFulfillment();
+        }
+        return factory;
+    }
+    public long getSeed() {
+        return seed;
+    }
+    public int getDaysRun() {
+        return daysRun;
+    }
+    public boolean hasOrderFulfillment() {
+        return fulfillment != null;
+    }
+    public long getReleasedOrders() {
+        return releasedOrders;
+    }
+    public boolean hasStreamedOrders() {
+        return streamedOrders;
+    }
     public List<PartMachine> getMachines() {
         return machines;
     }
@@ -92,51 +197,75 @@ public class CarPartFactory {
     public Map<Integer, Integer> getDefectives() {
         return defectives;
     }
+    /**
+    * Sets the defective counts. Any other kind of map is copied into an IntIntMap.
+    * @param defectives (Map<Integer, Integer>) The number of defective parts of every part id
+    */
+
     public void setDefectives(Map<Integer, Integer> defectives) {
-        this.defectives = defectives;
+        if (defectives instanceof IntIntMap) {
+            this.defectives = (IntIntMap) defectives;
+            return;
+        }
+        this.defectives = new IntIntMap(Math.max(1, 2 * defectives.size()));
+        for (Entry<Integer, Integer> entry : defectives.entries()) {
+            this.defectives.putInt(entry.getKey(), entry.getValue());
+        }
     }
 
     /**
     * This method sets up the orders by reading the orders.csv file and creating the orders.
-    * It then adds the orders to the orders list.
+    * It then adds the orders to the orders list. The lines are parsed in place by OrderParser.
     * @param path (String) The path to the orders.csv file
     * @throws IOException if the file is not found
     */
 
     public void setupOrders(String path) throws IOException {
         this.orders = new ArrayList<Order>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
-            String line;
-            boolean firstLine = false;
-            while ((line = reader.readLine()) != null) {
-                if (!firstLine) {
-                    firstLine = true;
-                    continue;
-                }
-                String[] orderInfo = line.split(",");
-                Map<Integer, Integer> requestedParts = new HashTableSC<Integer, Integer>(2, new BasicHashFunction());
-                String[] partsArray = orderInfo[2].split("-");
-                for (String part : partsArray) {
-                    String[] partDetails = part.replaceAll("[()]", "").trim().split(" ");
-                    int partId = Integer.parseInt(partDetails[0]);
-                    int quantity = Integer.parseInt(partDetails[1]);
-                    requestedParts.put(partId, quantity);
-                }
-                Order order = new Order(Integer.parseInt(orderInfo[0]), orderInfo[1], requestedParts, false);
+        try (OrderParser parser = new OrderParser(new FileInputStream(path), true)) {
+            Order order;
+            while ((order = parser.next()) != null) {
                 orders.add(order);
             }
         }
     }
 
+    /**
+    * Same as setupOrders(path) but the file is memory mapped and split into chunks that are parsed in parallel on pool.
+    * The orders end up in the orders list in the same order as the file.
+    * @param path (String) The path to the orders.csv file
+    * @param pool (ForkJoinPool) The pool that parses the chunks of the file
+    * @throws IOException if the file is not found or has an invalid line
+    */
+
+    public void setupOrders(String path, ForkJoinPool pool) throws IOException {
+        this.orders = new ArrayList<Order>();
+        OrderParser.parseFile(path, pool, orders);
+    }
+
+    /**
+    * This method sets up the machines and the orders by loading a snapshot (see FactorySnapshot).
+    * @param path (String) The path to the snapshot
+    * @throws IOException if the file is not found or is not a valid snapshot
+    */
+
+    public void setupFromSnapshot(String path) throws IOException {
+        FactorySnapshot snapshot = FactorySnapshot.load(path, seed);
+        this.machines = snapshot.getMachines();
+        this.orders = snapshot.getOrders();
+    }
+
     /**
     * This method sets up the machines by reading the parts.csv file and creating the machines.
-    * It then adds the machines to the machines list.
+    * It then adds the machines to the machines list. Every machine gets its own seed derived from the seed of the factory.
     * @param path (String) The path to the parts.csv file
     * @throws IOException if the file is not found
     */
 
     public void setupMachines(String path) throws IOException {
         this.machines = new ArrayList<PartMachine>();
+        // Each machine takes the next seed in file order
+        SplittableRandom seeds = new SplittableRandom(seed);
         BufferedReader reader = new BufferedReader(new FileReader(path));
             String line;
             boolean firstLine = false;
@@ -147,7 +276,7 @@ public class CarPartFactory {
             }
             String[] parts = line.split(",");
             CarPart carPart = new CarPart(Integer.parseInt(parts[0]), parts[1], Double.parseDouble(parts[2]), false);
-            PartMachine machine = new PartMachine(Integer.parseInt(parts[0]), carPart, Integer.parseInt(parts[4]), Double.parseDouble(parts[3]), Integer.parseInt(parts[5]));
+            PartMachine machine = new PartMachine(Integer.parseInt(parts[0]), carPart, Integer.parseInt(parts[4]), Double.parseDouble(parts[3]), Integer.parseInt(parts[5]), seeds.nextLong());
             machines.add(machine);
         }
         reader.close();
@@ -162,36 +291,70 @@ public class CarPartFactory {
         this.partCatalog = new HashTableSC<Integer, CarPart>(2, new BasicHashFunction());
         for (PartMachine machine : this.getMachines()) {
             partCatalog.put(machine.getPart().getId(), machine.getPart());
-            defectives.put(machine.getPart().getId(), 0);
+            defectives.putInt(machine.getPart().getId(), 0);
         }
     }
 
     /**
     * This method sets up the inventory by iterating through the machines list and adding the parts to the inventory.
+    * Each part id gets a CircularArrayList since parts are added at the end and taken from the front.
     */
 
     public void setupInventory() {
         for (PartMachine machine : this.getMachines()) {
-            inventory.put(machine.getPart().getId(), new ArrayList<CarPart>());
+            inventory.put(machine.getPart().getId(), new CircularArrayList<CarPart>());
         }
     }
 
     /**
-    * This method stores the parts in the inventory. It iterates through the production bin and adds the parts to the inventory.
+    * Switches the inventory to compact mode: each part id gets a CompactPartList, which only counts
+    * the parts and, if keepWeights is true, keeps their weights in a double array. The report and the
+    * orders only need how many parts there are, so long simulations don't have to keep every CarPart.
+    * Parts already in the inventory are moved to the new lists.
+    * @param keepWeights (boolean) True to keep the weight of every part, false to only count them
+    */
+
+    public void setupCompactInventory(boolean keepWeights) {
+        for (PartMachine machine : this.getMachines()) {
+            CarPart template = machine.getPart();
+            List<CarPart> oldInv = inventory.get(template.getId());
+            List<CarPart> machineInv = new CompactPartList(template, keepWeights);
+            if (oldInv != null) {
+                for (CarPart part : oldInv) {
+                    machineInv.add(part);
+                }
+            }
+            inventory.put(template.getId(), machineInv);
+        }
+    }
+
+    /**
+    * This method stores the parts in the inventory. It drains the production bin in one pass and adds the parts to the inventory.
     */
 
     public void storeInInventory() {
-        while (!productionBin.isEmpty()) {
-            CarPart part = productionBin.pop();
-            int partId = part.getId();
-
-            if (part.isDefective()) {
-                int defecCount = defectives.get(partId);
-                defectives.put(partId, defecCount + 1);
-            } 
-            else {
-                List<CarPart> machineInv = inventory.get(partId);
-                machineInv.add(part);
+        productionBin.drainTo(this::storePart);
+        if (fulfillment != null) {
+            fulfillment.update();
+        }
+    }
+
+    /**
+    * Counts a part as defective or adds it to the inventory of its part id.
+    * @param part (CarPart) The part taken from the production bin
+    */
+
+    private void storePart(CarPart part) {
+        int partId = part.getId();
+
+        if (part.isDefective()) {
+            defectives.increment(partId);
+        } 
+        else {
+            List<CarPart> machineInv = inventory.get(partId);
+            machineInv.add(part);
+            if (fulfillment != null) {
+                fulfillment.stockAdded(partId);
             }
         }
     }
@@ -200,39 +363,323 @@ public class CarPartFactory {
     * This method runs the factory for the given number of days and minutes.
     * It iterates through the machines list and produces the parts.
     * It then stores the parts in the inventory and processes the orders.
+    * Machines don't depend on each other during the day, so each one runs its whole day at once
+    * with PartMachine.produceBatch() instead of going minute by minute. The parts of every machine
+    * reach the bin in the same order as before, only the machines are no longer interleaved, and
+    * since every part id comes from its own machine the inventory ends up the same.
     * @param days (int) The number of days to run the factory
     * @param minutes (int) The number of minutes to run the factory
     */
 
     public void runFactory(int days, int minutes) {
         for (int day = 1; day <= days; day++) {
+            runDay(minutes);
+        }
+        processOrders();
+    }
+
+    /**
+    * Runs the factory like runFactory() and writes a checkpoint every checkpointInterval days (see writeCheckpoint()).
+    * If the run stops, fromCheckpoint(checkpointPath) restores the last checkpoint, and running it with
+    * days - getDaysRun() more days of the original run gives the same results.
+    * @param days (int) The number of days to run the factory
+    * @param minutes (int) The number of minutes to run the factory
+    * @param checkpointPath (String) The path of the checkpoint, it is replaced every time
+    * @param checkpointInterval (int) The number of days between checkpoints
+    * @throws IOException if the checkpoint can't be written
+    * @throws IllegalStateException if the factory read orders from an OrderStream (see writeCheckpoint())
+    */
+
+    public void runFactory(int days, int minutes, String checkpointPath, int checkpointInterval) throws IOException {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be at least 1");
+        }
+        if (streamedOrders) {
+            throw new IllegalStateException("Can't checkpoint a factory that reads orders from an OrderStream");
+        }
+        for (int day = 1; day <= days; day++) {
+            runDay(minutes);
+            if (daysRun % checkpointInterval == 0) {
+                writeCheckpoint(checkpointPath);
+            }
+        }
+        processOrders();
+    }
+
+    /**
+    * Writes the whole state of the factory (machines with their timers and belts, inventory, defectives,
+    * production bin and orders) to a checkpoint, see FactoryCheckpoint.
+    * The position in an OrderStream is not saved, so a factory that read orders from one can't be checkpointed.
+    * @param path (String) The path of the checkpoint, it is replaced if it exists
+    * @throws IOException if the file can't be written
+    * @throws IllegalStateException if the factory read orders from an OrderStream
+    */
+
+    public void writeCheckpoint(String path) throws IOException {
+        FactoryCheckpoint.write(path, this);
+    }
+
+    /**
+    * Runs the factory like runFactory() but the orders come from stream as the days go by. The days are counted
+    * from 1 on every call, and at the start of day d the orders the stream gives for day d are read
+    * (order k of the file, counting from 0, arrives on day k / ordersPerDay + 1, see OrderStream).
+    * They are added to the orders list, and at the end of the day, once the parts are in the inventory,
+    * every order that can be fulfilled is fulfilled (see setupOrderFulfillment()).
+    * The fulfilled orders are then taken out of the orders list and only counted (see getReleasedOrders()),
+    * so the orders list only keeps the orders that are still pending. Orders that arrive after the last day
+    * are never read. Together, the whole file doesn't have to fit in memory.
+    * The stream belongs to the caller, it is not closed here so a later call can keep reading from it.
+    * The position in the stream is not part of a checkpoint, so the factory can't be checkpointed afterwards.
+    * @param days (int) The number of days to run the factory
+    * @param minutes (int) The number of minutes to run the factory
+    * @param stream (OrderStream) Gives the orders that arrive each day
+    * @throws IOException if the orders file can't be read
+    */
+
+    public void runFactory(int days, int minutes, OrderStream stream) throws IOException {
+        if (fulfillment == null) {
+            setupOrderFulfillment();
+        }
+        streamedOrders = true;
+        for (int day = 1; day <= days; day++) {
+            Order order;
+            while ((order = stream.next(day)) != null) {
+                orders.add(order);
+                fulfillment.addOrder(order);
+            }
+            runDay(minutes);
+            releaseFulfilledOrders();
+        }
+    }
+
+    /**
+    * Takes the fulfilled orders out of the orders list, keeping the order of the rest, and counts them in releasedOrders.
+    */
+
+    private void releaseFulfilledOrders() {
+        int kept = 0;
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            if (!order.isFulfilled()) {
+                orders.set(kept++, order);
+            }
+        }
+        releasedOrders += orders.size() - kept;
+        // Removing from the end doesn't shift anything
+        while (orders.size() > kept) {
+            orders.remove(orders.size() - 1);
+        }
+    }
+
+    /**
+    * Runs every machine for one day and ends the day (see endOfDay()).
+    * @param minutes (int) The number of minutes in the day
+    */
+
+    private void runDay(int minutes) {
+        for (PartMachine machine : machines) {
+            machine.produceBatch(minutes, productionBin::push);
+        }
+        endOfDay();
+    }
+
+    /**
+    * Runs the factory like runFactory() but simulates the machines at the same time on the given pool.
+    * During a day a machine only changes its own state, so each machine runs its whole day (and empties
+    * its belt) into a PartLedger of its own. Once every machine is done, which is the end of the day,
+    * the ledgers are stored in the inventory in machine order (see storeLedger()). Each machine's parts keep
+    * their order, so the inventory, the defectives and the report are the same as with runFactory().
+    * @param days (int) The number of days to run the factory
+    * @param minutes (int) The number of minutes to run the factory
+    * @param pool (ForkJoinPool) The pool that runs the machines
+    */
+
+    public void runFactory(int days, int minutes, ForkJoinPool pool) {
+        List<PartLedger> ledgers = new ArrayList<>(Math.max(1, machines.size()));
+        for (int i = 0; i < machines.size(); i++) {
+            ledgers.add(new PartLedger());
+        }
+
+        for (int day = 1; day <= days; day++) {
+            pool.invoke(new MachineDayTask(ledgers, 0, machines.size(), minutes));
+
+            for (PartLedger ledger : ledgers) {
+                storeLedger(ledger);
+                ledger.clear();
+            }
+            // Anything that was already in the bin
+            storeInInventory();
+            daysRun++;
+        }
+        processOrders();
+    }
 
-            for (int minute = 1; minute <= minutes; minute++) {
+    /**
+    * Stores the parts of a ledger like storePart() does, from the last row to the first (the order a stack
+    * would give). The ledger is read column by column: defective parts are only counted and compact
+    * inventories take the weight directly, so a CarPart is only created for the regular inventory lists
+    * (and it shares the PartType of the machine's part).
+    * @param ledger (PartLedger) The parts produced by one machine
+    */
 
-                for (PartMachine machine : machines) {
-                    CarPart producedPart = machine.produceCarPart();
-                    
-                    if (producedPart != null) {
-                        productionBin.push(producedPart);
-                    }
+    private void storeLedger(PartLedger ledger) {
+        for (int row = ledger.size() - 1; row >= 0; row--) {
+            int partId = ledger.getId(row);
+
+            if (ledger.isDefective(row)) {
+                defectives.increment(partId);
+            }
+            else {
+                List<CarPart> machineInv = inventory.get(partId);
+                if (machineInv instanceof CompactPartList) {
+                    ((CompactPartList) machineInv).addWeight(ledger.getWeight(row));
+                }
+                else {
+                    machineInv.add(new CarPart(ledger.getType(row), ledger.getWeight(row), false));
+                }
+                if (fulfillment != null) {
+                    fulfillment.stockAdded(partId);
                 }
             }
-            for (PartMachine machine : machines) {
-                LinkedList<CarPart> remaining = machine.getRemainingConveyorBelt();
-                
-                for (CarPart part : remaining) {
-                    
-                    if (part != null) {
-                        productionBin.push(part);
-                    }
-                    machine.resetConveyorBelt();
+        }
+    }
+
+    /**
+    * Runs one day of the machines from position from to position to (not included) of the machines list,
+    * used by runFactory(int, int, ForkJoinPool). Big ranges are split in half and run in parallel.
+    */
+
+    private class MachineDayTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<PartLedger> ledgers;
+        private final int from;
+        private final int to;
+        private final int minutes;
+
+        public MachineDayTask(List<PartLedger> ledgers, int from, int to, int minutes) {
+            this.ledgers = ledgers;
+            this.from = from;
+            this.to = to;
+            this.minutes = minutes;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MACHINES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    PartMachine machine = machines.get(i);
+                    PartLedger ledger = ledgers.get(i);
+                    machine.produceBatch(minutes, ledger);
+                    machine.flushConveyorBelt(ledger::append);
                 }
             }
-            storeInInventory();
+            else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new MachineDayTask(ledgers, from, middle, minutes),
+                        new MachineDayTask(ledgers, middle, to, minutes));
+            }
+        }
+    }
+
+    /**
+    * Ends a simulated day: the parts left on every conveyor belt go to the production bin,
+    * then the bin is stored in the inventory.
+    */
+
+    private void endOfDay() {
+        for (PartMachine machine : machines) {
+            machine.flushConveyorBelt(productionBin::push);
+        }
+        storeInInventory();
+        daysRun++;
+    }
+
+    /**
+    * Runs the factory like runFactory() but as a discrete event simulation. Instead of visiting every
+    * machine on every minute, each machine has an event with the minute of its next production and the
+    * events are kept in a priority queue. We jump from one event to the next and the minutes in between
+    * are skipped with PartMachine.idle(). Events on the same minute are handled in machine order, so the
+    * parts reach the production bin in the same order as a minute by minute run and the results are the same
+    * as runFactory().
+    * @param days (int) The number of days to run the factory
+    * @param minutes (int) The number of minutes to run the factory
+    */
+
+    public void runFactoryEventDriven(int days, int minutes) {
+        PriorityQueue<ProductionEvent> events = new HeapPriorityQueue<ProductionEvent>(Math.max(1, machines.size()),
+                (e1, e2) -> e1.minute != e2.minute ? Integer.compare(e1.minute, e2.minute) : Integer.compare(e1.index, e2.index));
+        ProductionEvent[] machineEvents = new ProductionEvent[machines.size()];
+        for (int i = 0; i < machineEvents.length; i++) {
+            machineEvents[i] = new ProductionEvent(i, machines.get(i));
+        }
+
+        for (int day = 1; day <= days; day++) {
+            for (ProductionEvent event : machineEvents) {
+                event.lastMinute = 0;
+                int next = event.machine.minutesUntilProduction();
+                if (next != -1 && next <= minutes) {
+                    event.minute = next;
+                    events.enqueue(event);
+                }
+            }
+
+            while (!events.isEmpty()) {
+                ProductionEvent event = events.dequeue();
+                PartMachine machine = event.machine;
+                machine.idle(event.minute - event.lastMinute - 1);
+                CarPart producedPart = machine.producePart();
+                if (producedPart != null) {
+                    productionBin.push(producedPart);
+                }
+                event.lastMinute = event.minute;
+                // Asked to the machine instead of adding the period, a timer set with setTimer() can be any cycle
+                event.minute += machine.minutesUntilProduction();
+                if (event.minute <= minutes) {
+                    events.enqueue(event);
+                }
+            }
+
+            // Minutes after each machine's last part of the day
+            for (ProductionEvent event : machineEvents) {
+                event.machine.idle(minutes - event.lastMinute);
+            }
+            endOfDay();
         }
         processOrders();
     }
 
+    /**
+    * Next production of a machine, used by runFactoryEventDriven().
+    */
+
+    private static class ProductionEvent {
+        // Position of the machine in the machines list, breaks ties between events on the same minute
+        private final int index;
+        private final PartMachine machine;
+        // Minute of the day the machine produces next
+        private int minute;
+        // Last minute of the day the machine was run up to
+        private int lastMinute;
+
+        public ProductionEvent(int index, PartMachine machine) {
+            this.index = index;
+            this.machine = machine;
+        }
+    }
+
+    /**
+    * Turns on incremental order fulfillment (see OrderFulfillment). Instead of checking every order once
+    * at the end, the orders are fulfilled at the end of every day as soon as the inventory has their parts,
+    * and only the orders waiting on the parts that got stock are checked. Call it after the inventory is set up
+    * (and after setupCompactInventory() if it is used). The orders that can already be fulfilled are fulfilled here.
+    */
+
+    public void setupOrderFulfillment() {
+        fulfillment = new OrderFulfillment(orders, inventory);
+        fulfillment.update();
+    }
+
     /**
     * This method processes the orders by iterating through the orders list and checking if the order can be fulfilled.
     * If the order can be fulfilled, it sets the order's fulfilled attribute to true and removes the parts from the inventory.
@@ -240,12 +687,17 @@ public class CarPartFactory {
     */
 
     public void processOrders() {
+        if (fulfillment != null) {
+            // Only the parts that got stock since the last check have to be looked at
+            fulfillment.update();
+            return;
+        }
         for (Order order : orders) {
             boolean isOrderFulfilled = true;
 
-            for (int key : order.getRequestedParts().getKeys()) {
-                int requestedQuantity = order.getRequestedParts().get(key);
-                List<CarPart> machineInv = inventory.get(key);
+            for (Entry<Integer, Integer> request : order.getRequestedParts().entries()) {
+                int requestedQuantity = request.getValue();
+                List<CarPart> machineInv = inventory.get(request.getKey());
 
                 if (requestedQuantity > machineInv.size()) {
                     isOrderFulfilled = false;
@@ -256,24 +708,40 @@ public class CarPartFactory {
             if (isOrderFulfilled) {
                 order.setFulfilled(true);
 
-                for (int key : order.getRequestedParts().getKeys()) {
-                    int requestedQuantity = order.getRequestedParts().get(key);
-
-                    for (int i = 0; i < requestedQuantity; i++) {
-                        List<CarPart> machineInv = inventory.get(key);
-                        machineInv.remove(0);
-                        inventory.put(key, machineInv);
-                    }
+                for (Entry<Integer, Integer> request : order.getRequestedParts().entries()) {
+                    removeFromInventory(inventory.get(request.getKey()), request.getValue());
                 }
             }
         }
     }
 
 
+    /**
+    * Takes the first quantity parts out of a part's inventory.
+    * CircularArrayList and CompactPartList remove them in one step, any other List falls back to removing one at a time.
+    * @param machineInv (List<CarPart>) The inventory of one part id
+    * @param quantity (int) The number of parts to remove
+    */
+
+    static void removeFromInventory(List<CarPart> machineInv, int quantity) {
+        if (machineInv instanceof CircularArrayList) {
+            ((CircularArrayList<CarPart>) machineInv).removeFirst(quantity);
+        }
+        else if (machineInv instanceof CompactPartList) {
+            ((CompactPartList) machineInv).removeFirst(quantity);
+        }
+        else {
+            for (int i = 0; i < quantity; i++) {
+                machineInv.remove(0);
+            }
+        }
+    }
+
     /**
     * Generates a report indicating how many parts were produced per machine,
     * how many of those were defective and are still in inventory. Additionally, 
     * it also shows how many orders were successfully fulfilled. 
+    * Orders released by a run with an OrderStream are not listed, only counted.
     */
     
     public void generateReport() {
@@ -289,6 +757,9 @@ public class CarPartFactory {
         for (Order transaction : this.getOrders()) {
             report += transaction + "\n";
         }
+        if (releasedOrders > 0) {
+            report += releasedOrders + " more orders fulfilled\n";
+        }
         System.out.println(report);
     }
 }
\ No newline at end of file
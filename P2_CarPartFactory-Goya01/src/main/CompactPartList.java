@@ -0,0 +1,327 @@
+/*
+* This class is a compact inventory for the good parts of one part id. Instead of keeping every CarPart
+* it only keeps how many parts there are and, optionally, their weights in a primitive array.
+* template: The part of the catalog, gives the id and name of every part in the list
+* weights: The weights of the parts in a circular array that starts at head, null if weights are not kept
+* head: The position in weights of the first part
+* size: The number of parts in the list
+* The parts returned by get(), first(), last() and the iterator are created when they are asked for.
+* Since CarPart doesn't override equals, two parts are considered the same if they have the same id and weight
+* (or just the same id when weights are not kept).
+*/
+package main;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import interfaces.List;
+
+public class CompactPartList implements List<CarPart> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private CarPart template;
+    private double[] weights;
+    private int head;
+    private int size;
+
+    /**
+    * Creates an empty inventory for the parts of template.
+    * @param template (CarPart) The catalog part, every part added must have its id
+    * @param keepWeights (boolean) True to keep the weight of every part, false to only count them
+    */
+
+    public CompactPartList(CarPart template, boolean keepWeights) {
+        if (template == null) {
+            throw new IllegalArgumentException("Invalid parameter");
+        }
+        this.template = template;
+        this.weights = keepWeights ? new double[DEFAULT_CAPACITY] : null;
+        this.head = 0;
+        this.size = 0;
+    }
+
+    public CarPart getTemplate() {
+        return template;
+    }
+
+    /**
+    * Checks if the weight of every part is kept.
+    * @return (boolean) True if weights are kept, false if parts are only counted
+    */
+
+    public boolean keepsWeights() {
+        return weights != null;
+    }
+
+    /**
+    * Returns the weight of the part at position index without creating a CarPart.
+    * When weights are not kept every part has the weight of the template.
+    * @param index (int) The position of the part
+    * @return (double) The weight of the part
+    */
+
+    public double getWeight(int index) {
+        checkIndex(index);
+        return weights == null ? template.getWeight() : weights[physical(index)];
+    }
+
+    /**
+    * Removes the first k parts of the list. Only the head moves, so this is O(1).
+    * @param k (int) The number of parts to remove
+    * @throws IndexOutOfBoundsException if k is negative or bigger than size
+    */
+
+    public void removeFirst(int k) {
+        if (k < 0 || k > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        head = size == k || weights == null ? 0 : physical(k);
+        size -= k;
+    }
+
+    private int physical(int index) {
+        int pos = head + index;
+        return pos >= weights.length ? pos - weights.length : pos;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+    * Makes sure the part can go in this list: it has the id of the template and is not defective.
+    */
+
+    private void checkPart(CarPart part) {
+        if (part == null || part.getId() != template.getId() || part.isDefective()) {
+            throw new IllegalArgumentException("Invalid parameter");
+        }
+    }
+
+    private CarPart partAt(int index) {
+        return new CarPart(template.getType(), getWeight(index), false);
+    }
+
+    /**
+    * Checks if the part at position index is the same as part (see the class comment).
+    */
+
+    private boolean matches(int index, CarPart part) {
+        if (part == null || part.getId() != template.getId() || part.isDefective()) {
+            return false;
+        }
+        return weights == null || Double.compare(weights[physical(index)], part.getWeight()) == 0;
+    }
+
+    /**
+    * Doubles the weights array. The weights are copied so the first part is at position 0 again.
+    */
+
+    private void reallocate() {
+        double[] temp = new double[weights.length * 2];
+        int firstPart = Math.min(size, weights.length - head);
+        System.arraycopy(weights, head, temp, 0, firstPart);
+        System.arraycopy(weights, 0, temp, firstPart, size - firstPart);
+        weights = temp;
+        head = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void add(CarPart obj) {
+        add(size, obj);
+    }
+
+    /**
+    * Adds the weight of obj at position index, shifting the weights after it.
+    */
+
+    @Override
+    public void add(int index, CarPart obj) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        checkPart(obj);
+        if (weights != null) {
+            if (size == weights.length) {
+                reallocate();
+            }
+            for (int i = size; i > index; i--) {
+                weights[physical(i)] = weights[physical(i - 1)];
+            }
+            weights[physical(index)] = obj.getWeight();
+        }
+        size++;
+    }
+
+    /**
+    * Adds a good part with the given weight at the end of the list without needing a CarPart.
+    * When weights are not kept it just counts the part.
+    * @param weight (double) The weight of the part
+    */
+
+    public void addWeight(double weight) {
+        if (weights != null) {
+            if (size == weights.length) {
+                reallocate();
+            }
+            weights[physical(size)] = weight;
+        }
+        size++;
+    }
+
+    @Override
+    public CarPart get(int index) {
+        checkIndex(index);
+        return partAt(index);
+    }
+
+    /**
+    * Replaces the weight at position index with the weight of obj.
+    * @return (CarPart) The part that was at position index
+    */
+
+    @Override
+    public CarPart set(int index, CarPart obj) {
+        checkIndex(index);
+        checkPart(obj);
+        CarPart oldPart = partAt(index);
+        if (weights != null) {
+            weights[physical(index)] = obj.getWeight();
+        }
+        return oldPart;
+    }
+
+    @Override
+    public boolean remove(int index) {
+        checkIndex(index);
+        if (index == 0) {
+            removeFirst(1);
+            return true;
+        }
+        if (weights != null) {
+            for (int i = index; i < size - 1; i++) {
+                weights[physical(i)] = weights[physical(i + 1)];
+            }
+        }
+        size--;
+        return true;
+    }
+
+    @Override
+    public boolean remove(CarPart obj) {
+        int index = firstIndex(obj);
+        if (index != -1) {
+            return remove(index);
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(CarPart obj) {
+        return firstIndex(obj) != -1;
+    }
+
+    @Override
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    @Override
+    public int removeAll(CarPart obj) {
+        // Keep the weights that don't match in one pass
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!matches(i, obj)) {
+                if (weights != null) {
+                    weights[physical(kept)] = weights[physical(i)];
+                }
+                kept++;
+            }
+        }
+        int count = size - kept;
+        size = kept;
+        return count;
+    }
+
+    @Override
+    public int firstIndex(CarPart obj) {
+        for (int i = 0; i < size; i++) {
+            if (matches(i, obj)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndex(CarPart obj) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (matches(i, obj)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public CarPart first() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return partAt(0);
+    }
+
+    @Override
+    public CarPart last() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return partAt(size - 1);
+    }
+
+    @Override
+    public Iterator<CarPart> iterator() {
+        return new Iterator<CarPart>() {
+            private int currentPosition = 0;
+
+            @Override
+            public boolean hasNext() {
+                return currentPosition < size;
+            }
+
+            @Override
+            public CarPart next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return partAt(currentPosition++);
+            }
+        };
+    }
+
+    /**
+    * Returns the list in the format { A, B, C } with the name of every part, like the other lists.
+    */
+
+    @Override
+    public String toString() {
+        String str = "{ ";
+        for (int i = 0; i < size; i++) {
+            str += template.getName() + (i < size - 1 ? ", " : " ");
+        }
+        return str + "}";
+    }
+}
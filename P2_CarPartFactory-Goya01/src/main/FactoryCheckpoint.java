@@ -0,0 +1,321 @@
+/*
+* This class saves the whole state of a factory in a binary file and loads it back, so a long run can be
+* resumed or forked into different runs without simulating the first days again.
+* The file starts like a FactorySnapshot (the string table, the machines and the orders, see FactorySnapshot)
+* and then has what changes while the factory runs. Everything is little-endian:
+*   int magic, int version, long seed, int daysRun, byte orderFulfillment (1 if it was set up)
+*   the inputs written by FactorySnapshot.writeInputs(), the orders keep whether they are fulfilled
+*   for each machine (same order): long seed, int totalPartsProduced, int timerLength, the timer values,
+*     int beltSlots, then for each slot: byte state (0 empty, 1 good part, 2 defective part) and double weight if not empty
+*   int inventoryCount, then for each part id: int partId, byte kind (see the INVENTORY constants), int partCount,
+*     then partCount doubles with the weights (nothing for a compact list that doesn't keep weights)
+*   int defectiveCount, then defectiveCount pairs of int partId, int count
+*   int binCount, then for each part of the production bin in pop order: int partId, double weight, byte defective
+* Parts are written without their id and name (except in the bin), every part gets the PartType of its
+* machine's part when it is loaded.
+* seed: The seed of the factory
+* daysRun: The number of days the factory had run
+* orderFulfillment: True if the factory fulfilled orders as stock arrived (see CarPartFactory.setupOrderFulfillment())
+* machines, orders, inventory, defectives, productionBin: The state of the factory
+*/
+package main;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import data_structures.ArrayList;
+import data_structures.ArrayQueue;
+import data_structures.ArrayStack;
+import data_structures.BasicHashFunction;
+import data_structures.CircularArrayList;
+import data_structures.ConveyorBelt;
+import data_structures.HashTableSC;
+import data_structures.IntIntMap;
+
+import interfaces.Entry;
+import interfaces.List;
+import interfaces.Map;
+import interfaces.Queue;
+import interfaces.Stack;
+
+public class FactoryCheckpoint {
+    // "CFPK" read as a little-endian int
+    private static final int MAGIC = 0x4B504643;
+    private static final int VERSION = 1;
+
+    // Kinds of inventory list: a regular list of parts and the two modes of CompactPartList
+    private static final byte INVENTORY_PARTS = 0;
+    private static final byte INVENTORY_WEIGHTS = 1;
+    private static final byte INVENTORY_COUNT = 2;
+
+    private static final byte SLOT_EMPTY = 0;
+    private static final byte SLOT_GOOD = 1;
+    private static final byte SLOT_DEFECTIVE = 2;
+
+    private long seed;
+    private int daysRun;
+    private boolean orderFulfillment;
+    private List<PartMachine> machines;
+    private List<Order> orders;
+    private Map<Integer, List<CarPart>> inventory;
+    private IntIntMap defectives;
+    private Stack<CarPart> productionBin;
+
+    private FactoryCheckpoint() {
+
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+    public int getDaysRun() {
+        return daysRun;
+    }
+    public boolean hasOrderFulfillment() {
+        return orderFulfillment;
+    }
+    public List<PartMachine> getMachines() {
+        return machines;
+    }
+    public List<Order> getOrders() {
+        return orders;
+    }
+    public Map<Integer, List<CarPart>> getInventory() {
+        return inventory;
+    }
+    public IntIntMap getDefectives() {
+        return defectives;
+    }
+    public Stack<CarPart> getProductionBin() {
+        return productionBin;
+    }
+
+    /**
+    * Writes the state of factory to a checkpoint. The file is written next to path first and then moved
+    * over it, so if the program stops while writing, the previous checkpoint is still there.
+    * The factory is not changed (the production bin is emptied to be read and then filled again).
+    * A factory that read orders from an OrderStream can't be saved, the position in the stream is not part of the file.
+    * @param path (String) The path of the checkpoint, it is replaced if it exists
+    * @param factory (CarPartFactory) The factory to save
+    * @throws IOException if the file can't be written
+    * @throws IllegalStateException if the factory read orders from an OrderStream
+    */
+
+    public static void write(String path, CarPartFactory factory) throws IOException {
+        if (factory.hasStreamedOrders()) {
+            throw new IllegalStateException("Can't checkpoint a factory that reads orders from an OrderStream");
+        }
+        Path target = Paths.get(path);
+        Path temp = Paths.get(path + ".tmp");
+        try (FactorySnapshot.Writer out = new FactorySnapshot.Writer(temp.toString())) {
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putLong(factory.getSeed());
+            out.putInt(factory.getDaysRun());
+            out.putByte(factory.hasOrderFulfillment() ? 1 : 0);
+            FactorySnapshot.writeInputs(out, factory.getMachines(), factory.getOrders());
+
+            for (PartMachine machine : factory.getMachines()) {
+                out.putLong(machine.getSeed());
+                out.putInt(machine.getTotalPartsProduced());
+                int[] timer = machine.getTimerValues();
+                out.putInt(timer.length);
+                for (int time : timer) {
+                    out.putInt(time);
+                }
+                Queue<CarPart> belt = machine.getConveyorBelt();
+                out.putInt(belt.size());
+                for (int i = 0; i < belt.size(); i++) {
+                    CarPart part = belt.dequeue();
+                    belt.enqueue(part);
+                    if (part == null) {
+                        out.putByte(SLOT_EMPTY);
+                    }
+                    else {
+                        out.putByte(part.isDefective() ? SLOT_DEFECTIVE : SLOT_GOOD);
+                        out.putDouble(part.getWeight());
+                    }
+                }
+            }
+
+            out.putInt(factory.getInventory().size());
+            for (Entry<Integer, List<CarPart>> entry : factory.getInventory().entries()) {
+                List<CarPart> parts = entry.getValue();
+                out.putInt(entry.getKey());
+                if (parts instanceof CompactPartList) {
+                    CompactPartList compact = (CompactPartList) parts;
+                    out.putByte(compact.keepsWeights() ? INVENTORY_WEIGHTS : INVENTORY_COUNT);
+                    out.putInt(compact.size());
+                    if (compact.keepsWeights()) {
+                        for (int i = 0; i < compact.size(); i++) {
+                            out.putDouble(compact.getWeight(i));
+                        }
+                    }
+                }
+                else {
+                    out.putByte(INVENTORY_PARTS);
+                    out.putInt(parts.size());
+                    for (CarPart part : parts) {
+                        out.putDouble(part.getWeight());
+                    }
+                }
+            }
+
+            Map<Integer, Integer> defectives = factory.getDefectives();
+            out.putInt(defectives.size());
+            for (Entry<Integer, Integer> entry : defectives.entries()) {
+                out.putInt(entry.getKey());
+                out.putInt(entry.getValue());
+            }
+
+            Stack<CarPart> productionBin = factory.getProductionBin();
+            List<CarPart> binParts = new ArrayList<CarPart>(Math.max(1, productionBin.size()));
+            productionBin.drainTo(binParts::add);
+            for (int i = binParts.size() - 1; i >= 0; i--) {
+                productionBin.push(binParts.get(i));
+            }
+            out.putInt(binParts.size());
+            for (CarPart part : binParts) {
+                out.putInt(part.getId());
+                out.putDouble(part.getWeight());
+                out.putByte(part.isDefective() ? 1 : 0);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+    * Loads a checkpoint written by write().
+    * @param path (String) The path of the checkpoint
+    * @return (FactoryCheckpoint) The state of the factory
+    * @throws IOException if the file can't be read or is not a valid checkpoint
+    */
+
+    public static FactoryCheckpoint load(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            ByteBuffer data = FactorySnapshot.map(channel);
+            FactorySnapshot.checkHeader(data, MAGIC, VERSION, "factory checkpoint");
+
+            FactoryCheckpoint checkpoint = new FactoryCheckpoint();
+            checkpoint.seed = data.getLong();
+            checkpoint.daysRun = data.getInt();
+            checkpoint.orderFulfillment = data.get() != 0;
+            FactorySnapshot inputs = FactorySnapshot.readInputs(data, checkpoint.seed);
+            checkpoint.machines = inputs.getMachines();
+            checkpoint.orders = inputs.getOrders();
+
+            // Part of each part id, gives the PartType of the loaded parts
+            Map<Integer, CarPart> parts = new HashTableSC<Integer, CarPart>(Math.max(1, 2 * checkpoint.machines.size()), new BasicHashFunction());
+            for (PartMachine machine : checkpoint.machines) {
+                readMachineState(data, machine);
+                parts.put(machine.getPart().getId(), machine.getPart());
+            }
+
+            int inventoryCount = FactorySnapshot.checkCount(data.getInt(), data);
+            checkpoint.inventory = new HashTableSC<Integer, List<CarPart>>(Math.max(1, 2 * inventoryCount), new BasicHashFunction());
+            for (int i = 0; i < inventoryCount; i++) {
+                int partId = data.getInt();
+                checkpoint.inventory.put(partId, readInventory(data, part(parts, partId)));
+            }
+
+            int defectiveCount = FactorySnapshot.checkCount(data.getInt(), data);
+            checkpoint.defectives = new IntIntMap(Math.max(1, 2 * defectiveCount));
+            for (int i = 0; i < defectiveCount; i++) {
+                checkpoint.defectives.putInt(data.getInt(), data.getInt());
+            }
+
+            int binCount = FactorySnapshot.checkCount(data.getInt(), data);
+            CarPart[] binParts = new CarPart[binCount];
+            for (int i = 0; i < binCount; i++) {
+                CarPart part = part(parts, data.getInt());
+                binParts[i] = new CarPart(part.getType(), data.getDouble(), data.get() != 0);
+            }
+            checkpoint.productionBin = new ArrayStack<CarPart>(Math.max(1, binCount));
+            for (int i = binCount - 1; i >= 0; i--) {
+                checkpoint.productionBin.push(binParts[i]);
+            }
+            return checkpoint;
+        }
+        catch (BufferUnderflowException e) {
+            throw new IOException("Checkpoint is truncated");
+        }
+    }
+
+    /**
+    * Reads the seed, the count, the timer and the belt of a machine.
+    */
+
+    private static void readMachineState(ByteBuffer data, PartMachine machine) throws IOException {
+        machine.setSeed(data.getLong());
+        machine.setTotalPartsProduced(data.getInt());
+
+        int timerLength = FactorySnapshot.checkCount(data.getInt(), data);
+        Queue<Integer> timer = new ArrayQueue<Integer>(Math.max(1, timerLength));
+        for (int i = 0; i < timerLength; i++) {
+            timer.enqueue(data.getInt());
+        }
+        machine.setTimer(timer);
+
+        int beltSlots = FactorySnapshot.checkCount(data.getInt(), data);
+        if (beltSlots == 0) {
+            throw new IOException("Invalid conveyor belt in checkpoint");
+        }
+        // Advancing a full belt once per slot leaves exactly these slots on it, in order
+        ConveyorBelt<CarPart> belt = new ConveyorBelt<CarPart>(beltSlots);
+        for (int i = 0; i < beltSlots; i++) {
+            byte state = data.get();
+            CarPart part = null;
+            if (state != SLOT_EMPTY) {
+                part = new CarPart(machine.getPart().getType(), data.getDouble(), state == SLOT_DEFECTIVE);
+            }
+            belt.advance(part);
+        }
+        machine.setConveyorBelt(belt);
+    }
+
+    /**
+    * Reads the inventory list of one part id, it is the same kind of list that was written.
+    */
+
+    private static List<CarPart> readInventory(ByteBuffer data, CarPart part) throws IOException {
+        byte kind = data.get();
+        int partCount = data.getInt();
+        if (partCount < 0) {
+            throw new IOException("Invalid part count in checkpoint");
+        }
+        if (kind != INVENTORY_COUNT) {
+            // Every part has a weight in the file
+            FactorySnapshot.checkCount(partCount, data);
+        }
+        if (kind == INVENTORY_PARTS) {
+            List<CarPart> parts = new CircularArrayList<CarPart>(Math.max(1, partCount));
+            for (int i = 0; i < partCount; i++) {
+                parts.add(new CarPart(part.getType(), data.getDouble(), false));
+            }
+            return parts;
+        }
+        if (kind != INVENTORY_WEIGHTS && kind != INVENTORY_COUNT) {
+            throw new IOException("Invalid inventory kind " + kind + " in checkpoint");
+        }
+        CompactPartList parts = new CompactPartList(part, kind == INVENTORY_WEIGHTS);
+        for (int i = 0; i < partCount; i++) {
+            parts.addWeight(kind == INVENTORY_WEIGHTS ? data.getDouble() : part.getWeight());
+        }
+        return parts;
+    }
+
+    private static CarPart part(Map<Integer, CarPart> parts, int partId) throws IOException {
+        CarPart part = parts.get(partId);
+        if (part == null) {
+            throw new IOException("Unknown part id " + partId + " in checkpoint");
+        }
+        return part;
+    }
+}
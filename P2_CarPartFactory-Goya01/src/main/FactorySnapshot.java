@@ -0,0 +1,355 @@
+/*
+* This class reads and writes the inputs of a factory (the machines of parts.csv and the orders of orders.csv)
+* in a compact binary file, so a large scenario is converted once and then loaded without parsing any text.
+* Everything is little-endian and every variable length value is prefixed with its length:
+*   int magic, int version
+*   int stringCount, then for each string: int byteCount, the UTF-8 bytes
+*   int machineCount, then for each machine: int id, int partId, int partName (index in the strings),
+*     double partWeight, double weightError, int period, int chanceOfDefective
+*   int orderCount, then for each order: int id, int customerName (index in the strings), byte fulfilled,
+*     int partCount, then partCount pairs of int partId, int quantity
+* Customer and part names are stored once in the string table, the records only keep their index (-1 for a null name).
+* Values that would only fail later in a simulation (a period or chance of defective below 1) are rejected while loading.
+* The file is loaded by memory mapping it and reading the values with a ByteBuffer.
+* machines: The machines of the snapshot, each one with its own seed (see load())
+* orders: The orders of the snapshot
+*/
+package main;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+import data_structures.ArrayList;
+import data_structures.HashTableSC;
+import data_structures.IntIntMap;
+
+import interfaces.Entry;
+import interfaces.List;
+import interfaces.Map;
+
+public class FactorySnapshot {
+    // "CFPS" read as a little-endian int
+    private static final int MAGIC = 0x53504643;
+    private static final int VERSION = 1;
+
+    private List<PartMachine> machines;
+    private List<Order> orders;
+
+    private FactorySnapshot(List<PartMachine> machines, List<Order> orders) {
+        this.machines = machines;
+        this.orders = orders;
+    }
+
+    public List<PartMachine> getMachines() {
+        return machines;
+    }
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    /**
+    * Converts a parts.csv and an orders.csv file into a snapshot. This only has to be done once per scenario.
+    * @param orderPath (String) The path to the orders.csv file
+    * @param partsPath (String) The path to the parts.csv file
+    * @param snapshotPath (String) The path of the snapshot to create, it is overwritten if it exists
+    * @throws IOException if a file can't be read or written
+    */
+
+    public static void convert(String orderPath, String partsPath, String snapshotPath) throws IOException {
+        // The seed doesn't matter, seeds are not part of the snapshot
+        CarPartFactory factory = new CarPartFactory(orderPath, partsPath, 0L);
+        write(snapshotPath, factory.getMachines(), factory.getOrders());
+    }
+
+    /**
+    * Writes machines and orders to a snapshot. Only the configuration of the machines is written, not their timers or belts.
+    * @param path (String) The path of the snapshot, it is overwritten if it exists
+    * @param machines (List<PartMachine>) The machines to write
+    * @param orders (List<Order>) The orders to write
+    * @throws IOException if the file can't be written
+    */
+
+    public static void write(String path, List<PartMachine> machines, List<Order> orders) throws IOException {
+        try (Writer out = new Writer(path)) {
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            writeInputs(out, machines, orders);
+        }
+    }
+
+    /**
+    * Writes the string table, the machines and the orders (everything after the version), also used by FactoryCheckpoint.
+    */
+
+    static void writeInputs(Writer out, List<PartMachine> machines, List<Order> orders) throws IOException {
+        List<String> strings = new ArrayList<String>();
+        Map<String, Integer> stringIndexes = new HashTableSC<String, Integer>(Math.max(1, machines.size() + orders.size()), key -> key.hashCode());
+        int[] partNames = new int[machines.size()];
+        int[] customerNames = new int[orders.size()];
+        for (int i = 0; i < machines.size(); i++) {
+            partNames[i] = stringIndex(machines.get(i).getPart().getName(), strings, stringIndexes);
+        }
+        for (int i = 0; i < orders.size(); i++) {
+            customerNames[i] = stringIndex(orders.get(i).getCustomerName(), strings, stringIndexes);
+        }
+
+        out.putInt(strings.size());
+        for (String string : strings) {
+            out.putBytes(string.getBytes(StandardCharsets.UTF_8));
+        }
+
+        out.putInt(machines.size());
+        for (int i = 0; i < machines.size(); i++) {
+            PartMachine machine = machines.get(i);
+            CarPart part = machine.getPart();
+            out.putInt(machine.getId());
+            out.putInt(part.getId());
+            out.putInt(partNames[i]);
+            out.putDouble(part.getWeight());
+            out.putDouble(machine.getPartWeightError());
+            out.putInt(machine.getPeriod());
+            out.putInt(machine.getChanceOfDefective());
+        }
+
+        out.putInt(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            out.putInt(order.getId());
+            out.putInt(customerNames[i]);
+            out.putByte(order.isFulfilled() ? 1 : 0);
+            out.putInt(order.getRequestedParts().size());
+            for (Entry<Integer, Integer> request : order.getRequestedParts().entries()) {
+                out.putInt(request.getKey());
+                out.putInt(request.getValue());
+            }
+        }
+    }
+
+    /**
+    * Returns the position of string in the string table, adding it if it is not there yet.
+    */
+
+    private static int stringIndex(String string, List<String> strings, Map<String, Integer> stringIndexes) {
+        if (string == null) {
+            return -1;
+        }
+        Integer index = stringIndexes.get(string);
+        if (index == null) {
+            index = strings.size();
+            strings.add(string);
+            stringIndexes.put(string, index);
+        }
+        return index;
+    }
+
+    /**
+    * Loads a snapshot. Machines get their seeds the same way CarPartFactory.setupMachines() gives them,
+    * so a factory loaded from a snapshot produces the same parts as one read from the csv files with the same seed.
+    * @param path (String) The path to the snapshot
+    * @param seed (long) The seed of the factory
+    * @return (FactorySnapshot) The machines and orders of the snapshot
+    * @throws IOException if the file can't be read or is not a valid snapshot
+    */
+
+    public static FactorySnapshot load(String path, long seed) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            ByteBuffer data = map(channel);
+            checkHeader(data, MAGIC, VERSION, "factory snapshot");
+            return readInputs(data, seed);
+        }
+        catch (BufferUnderflowException e) {
+            throw new IOException("Snapshot is truncated");
+        }
+    }
+
+    /**
+    * Maps a whole file for reading, the values are read as little-endian.
+    */
+
+    static ByteBuffer map(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot is too big");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+    * Reads the magic number and the version and makes sure they are the expected ones.
+    * @param what (String) The kind of file, used in error messages
+    */
+
+    static void checkHeader(ByteBuffer data, int magic, int version, String what) throws IOException {
+        if (data.remaining() < 8 || data.getInt() != magic) {
+            throw new IOException("Not a " + what);
+        }
+        int fileVersion = data.getInt();
+        if (fileVersion != version) {
+            throw new IOException("Unsupported " + what + " version " + fileVersion);
+        }
+    }
+
+    /**
+    * Reads what writeInputs() writes. Machines get their seeds from seed like in load().
+    */
+
+    static FactorySnapshot readInputs(ByteBuffer data, long seed) throws IOException {
+        String[] strings = new String[checkCount(data.getInt(), data)];
+        byte[] bytes = new byte[64];
+        for (int i = 0; i < strings.length; i++) {
+            int length = checkCount(data.getInt(), data);
+            if (length > bytes.length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            data.get(bytes, 0, length);
+            strings[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        int machineCount = checkCount(data.getInt(), data);
+        List<PartMachine> machines = new ArrayList<PartMachine>(Math.max(1, machineCount));
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int i = 0; i < machineCount; i++) {
+            int id = data.getInt();
+            int partId = data.getInt();
+            String partName = string(strings, data.getInt());
+            double partWeight = data.getDouble();
+            double weightError = data.getDouble();
+            int period = data.getInt();
+            int chanceOfDefective = data.getInt();
+            if (period < 1) {
+                throw new IOException("corrupt snapshot: machine " + id + " has period " + period);
+            }
+            if (chanceOfDefective < 1) {
+                throw new IOException("corrupt snapshot: machine " + id + " has chance of defective " + chanceOfDefective);
+            }
+            CarPart part = new CarPart(partId, partName, partWeight, false);
+            machines.add(new PartMachine(id, part, period, weightError, chanceOfDefective, seeds.nextLong()));
+        }
+
+        int orderCount = checkCount(data.getInt(), data);
+        List<Order> orders = new ArrayList<Order>(Math.max(1, orderCount));
+        for (int i = 0; i < orderCount; i++) {
+            int id = data.getInt();
+            String customerName = string(strings, data.getInt());
+            boolean fulfilled = data.get() != 0;
+            int partCount = checkCount(data.getInt(), data);
+            IntIntMap requestedParts = new IntIntMap(Math.max(1, 2 * partCount));
+            for (int j = 0; j < partCount; j++) {
+                requestedParts.putInt(data.getInt(), data.getInt());
+            }
+            orders.add(new Order(id, customerName, requestedParts, fulfilled));
+        }
+        return new FactorySnapshot(machines, orders);
+    }
+
+    /**
+    * Makes sure a count read from the file is not negative and not bigger than what is left of it,
+    * so a corrupt file fails instead of allocating a huge array.
+    */
+
+    static int checkCount(int count, ByteBuffer data) throws IOException {
+        if (count < 0 || count > data.remaining()) {
+            throw new IOException("Invalid count in snapshot at byte " + (data.position() - 4));
+        }
+        return count;
+    }
+
+    /**
+    * Returns the string at index in the string table, null for -1 (see stringIndex()).
+    */
+
+    private static String string(String[] strings, int index) throws IOException {
+        if (index == -1) {
+            return null;
+        }
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("corrupt snapshot: string index " + index + " is not in the string table");
+        }
+        return strings[index];
+    }
+
+    /**
+    * Writes little-endian values to a file through a buffer.
+    */
+
+    static class Writer implements Closeable {
+        private static final int BUFFER_SIZE = 1 << 16;
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        public Writer(String path) throws IOException {
+            this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        public void putByte(int value) throws IOException {
+            ensure(1);
+            buffer.put((byte) value);
+        }
+
+        public void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        public void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        public void putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+        }
+
+        /**
+        * Writes the length of bytes and then the bytes.
+        */
+
+        public void putBytes(byte[] bytes) throws IOException {
+            putInt(bytes.length);
+            int written = 0;
+            while (written < bytes.length) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int length = Math.min(buffer.remaining(), bytes.length - written);
+                buffer.put(bytes, written, length);
+                written += length;
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            }
+            finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+* This class fulfills orders as stock arrives instead of checking every order against the inventory at the end.
+* Each part id keeps two priority queues with the requests of the pending orders that ask for it:
+* waiting: The requests that ask for more parts than there are in stock, smallest quantity first
+* ready: The requests that the stock covers, biggest quantity first
+* Each pending order counts how many of its requests are still waiting. When stock is added to a part only its
+* waiting queue is checked, and an order whose count reaches 0 can be fulfilled. Fulfilling an order takes stock,
+* so the biggest ready requests of those parts go back to waiting if the stock doesn't cover them anymore.
+* Orders that can be fulfilled at the same time are fulfilled in the order they were added, so calling update()
+* once gives the same result as CarPartFactory.processOrders(). More orders can be added later with addOrder().
+* Nothing keeps a fulfilled order once its requests leave the ready queues, so orders that keep arriving
+* (see CarPartFactory.runFactory(int, int, OrderStream)) don't pile up here.
+*/
+package main;
+
+import data_structures.ArrayList;
+import data_structures.BasicHashFunction;
+import data_structures.HashTableLP;
+import data_structures.HeapPriorityQueue;
+
+import interfaces.Entry;
+import interfaces.List;
+import interfaces.Map;
+import interfaces.PriorityQueue;
+
+public class OrderFulfillment {
+    // The queues of every part id that appears in an order
+    private Map<Integer, PartRequests> partRequests;
+    // Parts that got stock since the last update()
+    private List<PartRequests> restocked;
+    // Orders whose requests are all covered, the one first in the orders list goes first
+    private PriorityQueue<PendingOrder> fulfillable;
+    // Number of orders added so far, gives the position of the next order
+    private int orderCount;
+    private Map<Integer, List<CarPart>> inventory;
+
+    /**
+    * Sets up the queues for every order of the list that is not fulfilled yet. Nothing is fulfilled until update() is called.
+    * @param orders (List<Order>) The orders of the factory
+    * @param inventory (Map<Integer, List<CarPart>>) The inventory of the factory, the key is the part id
+    */
+
+    public OrderFulfillment(List<Order> orders, Map<Integer, List<CarPart>> inventory) {
+        this.inventory = inventory;
+        this.orderCount = 0;
+        this.partRequests = new HashTableLP<Integer, PartRequests>(Math.max(1, 2 * inventory.size()), new BasicHashFunction());
+        this.restocked = new ArrayList<PartRequests>();
+        this.fulfillable = new HeapPriorityQueue<PendingOrder>(Math.max(1, orders.size()),
+                (o1, o2) -> Integer.compare(o1.index, o2.index));
+
+        for (Order order : orders) {
+            addOrder(order);
+        }
+    }
+
+    /**
+    * Adds an order after the ones already added. It is only fulfilled on the next update(), and
+    * orders that are already fulfilled are skipped.
+    * @param order (Order) The order to add
+    */
+
+    public void addOrder(Order order) {
+        int index = orderCount++;
+        if (order.isFulfilled()) {
+            return;
+        }
+        PendingOrder pending = new PendingOrder(order, index);
+        for (Entry<Integer, Integer> request : order.getRequestedParts().entries()) {
+            List<CarPart> stock = inventory.get(request.getKey());
+            if (stock == null) {
+                // The factory doesn't make this part, the order can never be fulfilled
+                pending.missing++;
+                continue;
+            }
+            PartRequests part = partRequests.get(request.getKey());
+            if (part == null) {
+                part = new PartRequests(stock);
+                partRequests.put(request.getKey(), part);
+            }
+            Request newRequest = new Request(pending, request.getValue());
+            pending.requests.add(newRequest);
+            pending.parts.add(part);
+            if (newRequest.quantity <= stock.size()) {
+                part.ready.enqueue(newRequest);
+            }
+            else {
+                part.waiting.enqueue(newRequest);
+                pending.missing++;
+            }
+        }
+        if (pending.missing == 0) {
+            fulfillable.enqueue(pending);
+        }
+    }
+
+    /**
+    * Marks that stock was added to a part. The orders are only checked on the next update().
+    * @param partId (int) The id of the part that got stock
+    */
+
+    public void stockAdded(int partId) {
+        PartRequests part = partRequests.get(partId);
+        if (part != null && !part.restocked) {
+            part.restocked = true;
+            restocked.add(part);
+        }
+    }
+
+    /**
+    * Moves the waiting requests the new stock covers to ready and fulfills every order that can be fulfilled.
+    */
+
+    public void update() {
+        for (PartRequests part : restocked) {
+            part.restocked = false;
+            int stock = part.stock.size();
+            while (!part.waiting.isEmpty() && part.waiting.front().quantity <= stock) {
+                Request request = part.waiting.dequeue();
+                part.ready.enqueue(request);
+                if (--request.order.missing == 0) {
+                    fulfillable.enqueue(request.order);
+                }
+            }
+        }
+        restocked.clear();
+
+        while (!fulfillable.isEmpty()) {
+            PendingOrder pending = fulfillable.dequeue();
+            // It may have been fulfilled already or lost some of its parts to an order before it
+            if (pending.order.isFulfilled() || pending.missing > 0) {
+                continue;
+            }
+            pending.order.setFulfilled(true);
+            for (int i = 0; i < pending.requests.size(); i++) {
+                PartRequests part = pending.parts.get(i);
+                CarPartFactory.removeFromInventory(part.stock, pending.requests.get(i).quantity);
+                // Its request stays in the ready queue until it reaches the front
+                part.fulfilledReady++;
+                part.takeBackReady();
+            }
+        }
+    }
+
+    /**
+    * An order that is not fulfilled yet.
+    */
+
+    private static class PendingOrder {
+        private final Order order;
+        // Position in the orders list, decides which order goes first
+        private final int index;
+        // The requests of the order and the part each one asks for (same position in both lists)
+        private final List<Request> requests;
+        private final List<PartRequests> parts;
+        // Number of requests that are still waiting for stock
+        private int missing;
+
+        public PendingOrder(Order order, int index) {
+            this.order = order;
+            this.index = index;
+            int size = Math.max(1, order.getRequestedParts().size());
+            this.requests = new ArrayList<Request>(size);
+            this.parts = new ArrayList<PartRequests>(size);
+        }
+    }
+
+    /**
+    * The quantity an order asks of one part.
+    */
+
+    private static class Request {
+        private final PendingOrder order;
+        private final int quantity;
+
+        public Request(PendingOrder order, int quantity) {
+            this.order = order;
+            this.quantity = quantity;
+        }
+    }
+
+    /**
+    * The stock of a part and the requests of the pending orders that ask for it.
+    */
+
+    private static class PartRequests {
+        private final List<CarPart> stock;
+        private final PriorityQueue<Request> waiting = new HeapPriorityQueue<Request>((r1, r2) -> Integer.compare(r1.quantity, r2.quantity));
+        private final PriorityQueue<Request> ready = new HeapPriorityQueue<Request>((r1, r2) -> Integer.compare(r2.quantity, r1.quantity));
+        // True if the part is already in the restocked list
+        private boolean restocked;
+        // Number of requests in ready whose order was already fulfilled
+        private int fulfilledReady;
+
+        public PartRequests(List<CarPart> stock) {
+            this.stock = stock;
+        }
+
+        /**
+        * After stock was taken, moves the ready requests that ask for more than what is left back to waiting.
+        * Requests of orders that were fulfilled are dropped when they reach the front, or all at once when
+        * they are more than half of the queue, so they don't keep their orders alive.
+        */
+
+        private void takeBackReady() {
+            int left = stock.size();
+            while (!ready.isEmpty() && (ready.front().order.order.isFulfilled() || ready.front().quantity > left)) {
+                Request request = ready.dequeue();
+                if (!request.order.order.isFulfilled()) {
+                    waiting.enqueue(request);
+                    request.order.missing++;
+                }
+                else {
+                    fulfilledReady--;
+                }
+            }
+            if (fulfilledReady > ready.size() / 2) {
+                List<Request> pending = new ArrayList<Request>(ready.size() - fulfilledReady + 1);
+                while (!ready.isEmpty()) {
+                    Request request = ready.dequeue();
+                    if (!request.order.order.isFulfilled()) {
+                        pending.add(request);
+                    }
+                }
+                for (Request request : pending) {
+                    ready.enqueue(request);
+                }
+                fulfilledReady = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,439 @@
+/*
+* This class reads orders from an orders.csv file without splitting strings or using regular expressions.
+* Each line is parsed in place over the bytes of the file: the id and the (partId qty) groups are read
+* digit by digit into ints, so the only objects created per order are the customer name (decoded as UTF-8),
+* the map of requested parts and the Order itself.
+* It reads either from a stream, in blocks, or from a range of bytes that is already in memory, like a chunk
+* of a memory mapped file (see parseFile()). Both use the same line parsing.
+* in: The stream being read, null when parsing a range
+* buffer: The block of the stream being parsed, a line that doesn't fit in it makes it grow (null for a range)
+* data: The bytes being parsed (buffer wrapped, or the range)
+* position: Where the next line starts in data
+* limit: Where the bytes to parse end in data
+* endOfInput: True when there is nothing left to read after limit
+* lineNumber: The number of lines read so far, used in error messages
+* offset: The position in the file of byte 0 of data when parsing a range, -1 for a stream
+* numbers: The numbers of the groups of the line being parsed (partId, qty, partId, qty, ...), reused for every line
+* nameBytes: Where the bytes of the customer name are copied to be decoded, reused for every line
+*/
+package main;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import data_structures.ArrayList;
+import data_structures.IntIntMap;
+
+import interfaces.List;
+
+public class OrderParser implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Size of the chunks parseFile() splits a file into
+    private static final int CHUNK_SIZE = 8 << 20;
+
+    private InputStream in;
+    private byte[] buffer;
+    private ByteBuffer data;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+    private long lineNumber;
+    private long offset;
+    private int[] numbers;
+    private byte[] nameBytes;
+
+    /**
+    * Creates a parser that reads orders from a stream.
+    * @param in (InputStream) Gives the contents of the orders file
+    * @param skipHeader (boolean) True if the first line is a header and has to be skipped
+    * @throws IOException if the file can't be read
+    */
+
+    public OrderParser(InputStream in, boolean skipHeader) throws IOException {
+        this.in = in;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.data = ByteBuffer.wrap(buffer);
+        this.position = 0;
+        this.limit = 0;
+        this.endOfInput = false;
+        this.offset = -1;
+        setup(skipHeader);
+    }
+
+    /**
+    * Creates a parser for the lines between from and to (not included) of data. from has to be the start of a line.
+    * @param data (ByteBuffer) Holds the lines, it is only read with absolute gets
+    * @param from (int) Where the first line starts
+    * @param to (int) Where the last line ends
+    * @param offset (long) The position in the file of byte 0 of data, used in error messages
+    */
+
+    OrderParser(ByteBuffer data, int from, int to, long offset) throws IOException {
+        this.data = data;
+        this.position = from;
+        this.limit = to;
+        this.endOfInput = true;
+        this.offset = offset;
+        setup(false);
+    }
+
+    private void setup(boolean skipHeader) throws IOException {
+        this.lineNumber = 0;
+        this.numbers = new int[16];
+        this.nameBytes = new byte[64];
+        if (skipHeader) {
+            int end = findLineEnd();
+            if (end != -1) {
+                nextLine(end);
+            }
+        }
+    }
+
+    /**
+    * Reads the next order. Empty lines are skipped.
+    * @return (Order) The next order, not fulfilled, or null when there are no more lines
+    * @throws IOException if the file can't be read or a line is not a valid order
+    */
+
+    public Order next() throws IOException {
+        while (true) {
+            int end = findLineEnd();
+            if (end == -1) {
+                return null;
+            }
+            int start = nextLine(end);
+            if (end > start && data.get(end - 1) == '\r') {
+                end--;
+            }
+            if (end > start) {
+                return parseLine(start, end);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    /**
+    * Reads every order of an orders file in parallel. The file is memory mapped in chunks of about 8MB that
+    * end at a line break, the chunks are parsed at the same time on pool, and their orders are added to
+    * orders in the order of the file. The first line is a header and is skipped.
+    * @param path (String) The path to the orders.csv file
+    * @param pool (ForkJoinPool) The pool that parses the chunks
+    * @param orders (List<Order>) Where the orders are added
+    * @throws IOException if the file can't be read or a line is not a valid order
+    */
+
+    public static void parseFile(String path, ForkJoinPool pool, List<Order> orders) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            long size = channel.size();
+            // Start of every chunk, the last one is the end of the file
+            List<Long> starts = new ArrayList<Long>();
+            starts.add(lineAfter(channel, 0));
+            while (starts.last() < size) {
+                starts.add(lineAfter(channel, Math.min(size, starts.last() + CHUNK_SIZE)));
+            }
+
+            ChunkTask[] chunks = new ChunkTask[starts.size() - 1];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = new ChunkTask(channel, starts.get(i), starts.get(i + 1));
+            }
+            pool.invoke(new RecursiveAction() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    invokeAll(chunks);
+                }
+            });
+
+            for (ChunkTask chunk : chunks) {
+                if (chunk.error != null) {
+                    throw chunk.error;
+                }
+                for (Order order : chunk.orders) {
+                    orders.add(order);
+                }
+            }
+        }
+    }
+
+    /**
+    * Finds the start of the first line that begins after position from of the file.
+    * @return (long) The position after the next line break, the size of the file if there is none
+    */
+
+    private static long lineAfter(FileChannel channel, long from) throws IOException {
+        long size = channel.size();
+        ByteBuffer window = ByteBuffer.allocate(4096);
+        long position = from;
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+    * Parses the lines of one chunk of the file, used by parseFile().
+    */
+
+    private static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long from;
+        private final long to;
+        private final List<Order> orders = new ArrayList<Order>();
+        private IOException error;
+
+        public ChunkTask(FileChannel channel, long from, long to) {
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+                OrderParser parser = new OrderParser(chunk, 0, (int) (to - from), from);
+                Order order;
+                while ((order = parser.next()) != null) {
+                    orders.add(order);
+                }
+            }
+            catch (IOException e) {
+                error = e;
+            }
+        }
+    }
+
+    /**
+    * Moves position after the line that ends at end.
+    * @return (int) Where the line starts
+    */
+
+    private int nextLine(int end) {
+        int start = position;
+        position = end < limit ? end + 1 : limit;
+        lineNumber++;
+        return start;
+    }
+
+    /**
+    * Finds the end of the line that starts at position, reading more of the stream when the line is not complete.
+    * @return (int) The position of the '\n' of the line (limit if the last line has none), -1 if there are no more lines
+    */
+
+    private int findLineEnd() throws IOException {
+        int scanned = position;
+        while (true) {
+            for (int i = scanned; i < limit; i++) {
+                if (data.get(i) == '\n') {
+                    return i;
+                }
+            }
+            if (endOfInput) {
+                return position < limit ? limit : -1;
+            }
+            // Move the incomplete line to the start of the buffer (or grow it if the line fills it) and read more
+            int length = limit - position;
+            if (length == buffer.length) {
+                byte[] temp = new byte[buffer.length * 2];
+                System.arraycopy(buffer, position, temp, 0, length);
+                buffer = temp;
+                data = ByteBuffer.wrap(buffer);
+            }
+            else if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, length);
+            }
+            position = 0;
+            limit = length;
+            scanned = length;
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read == -1) {
+                endOfInput = true;
+            }
+            else {
+                limit += read;
+            }
+        }
+    }
+
+    /**
+    * Parses the line from start to end (not included) in the format id,customer,(partId qty)-(partId qty).
+    * Every group of the requested parts column has exactly two numbers separated by spaces, in parentheses
+    * (they can be left out, like the original split-based parser allowed), and the groups are separated by dashes.
+    * Spaces around the parentheses and dashes are allowed. Anything after another comma is ignored.
+    * A group with a missing or extra number, or a sign inside it, makes the line invalid.
+    */
+
+    private Order parseLine(int start, int end) throws IOException {
+        int firstComma = indexOf(',', start, end);
+        int secondComma = firstComma == -1 ? -1 : indexOf(',', firstComma + 1, end);
+        if (secondComma == -1) {
+            throw invalidLine(start);
+        }
+        int id = parseInt(start, firstComma, start);
+        String customerName = decode(firstComma + 1, secondComma);
+
+        int count = 0;
+        int index = skipSpaces(secondComma + 1, end);
+        while (true) {
+            boolean inParentheses = index < end && data.get(index) == '(';
+            if (inParentheses) {
+                index = skipSpaces(index + 1, end);
+            }
+            // The part id and the quantity, with at least one space between them
+            int idEnd = digitsEnd(index, end);
+            int quantityStart = skipSpaces(idEnd, end);
+            int quantityEnd = digitsEnd(quantityStart, end);
+            if (quantityStart == idEnd || quantityEnd == quantityStart) {
+                throw invalidLine(start);
+            }
+            count = addNumber(count, parseInt(index, idEnd, start));
+            count = addNumber(count, parseInt(quantityStart, quantityEnd, start));
+            index = skipSpaces(quantityEnd, end);
+            if (inParentheses) {
+                if (index == end || data.get(index) != ')') {
+                    throw invalidLine(start);
+                }
+                index = skipSpaces(index + 1, end);
+            }
+            if (index == end || data.get(index) == ',') {
+                break;
+            }
+            if (data.get(index) != '-') {
+                throw invalidLine(start);
+            }
+            index = skipSpaces(index + 1, end);
+        }
+
+        // Sized from the number of pairs so it never grows while it is filled
+        IntIntMap requestedParts = IntIntMap.withExpectedSize(count / 2);
+        for (int i = 0; i < count; i += 2) {
+            requestedParts.putInt(numbers[i], numbers[i + 1]);
+        }
+        return new Order(id, customerName, requestedParts, false);
+    }
+
+    /**
+    * Decodes the bytes between from and to (not included) as UTF-8.
+    */
+
+    private String decode(int from, int to) {
+        int length = to - from;
+        if (buffer != null) {
+            return new String(buffer, from, length, StandardCharsets.UTF_8);
+        }
+        if (length > nameBytes.length) {
+            nameBytes = new byte[Math.max(length, nameBytes.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            nameBytes[i] = data.get(from + i);
+        }
+        return new String(nameBytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private int addNumber(int count, int value) {
+        if (count == numbers.length) {
+            int[] temp = new int[numbers.length * 2];
+            System.arraycopy(numbers, 0, temp, 0, count);
+            numbers = temp;
+        }
+        numbers[count] = value;
+        return count + 1;
+    }
+
+    private int skipSpaces(int from, int to) {
+        while (from < to && data.get(from) == ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+    * Returns where the run of digits that starts at from ends (from itself if there are none).
+    */
+
+    private int digitsEnd(int from, int to) {
+        while (from < to && data.get(from) >= '0' && data.get(from) <= '9') {
+            from++;
+        }
+        return from;
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (data.get(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+    * Reads the int between from and to (not included), spaces around it are allowed.
+    * Values above Integer.MAX_VALUE make the line invalid, like Integer.parseInt() would.
+    */
+
+    private int parseInt(int from, int to, int lineStart) throws IOException {
+        while (from < to && data.get(from) == ' ') {
+            from++;
+        }
+        while (to > from && data.get(to - 1) == ' ') {
+            to--;
+        }
+        if (from == to) {
+            throw invalidLine(lineStart);
+        }
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            byte c = data.get(i);
+            if (c < '0' || c > '9') {
+                throw invalidLine(lineStart);
+            }
+            int digit = c - '0';
+            // result * 10 + digit would go over Integer.MAX_VALUE
+            if (result > (Integer.MAX_VALUE - digit) / 10) {
+                throw invalidLine(lineStart);
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    /**
+    * Error for the line that starts at lineStart: its line number for a stream, its position in the file for a range.
+    */
+
+    private IOException invalidLine(int lineStart) {
+        if (offset >= 0) {
+            return new IOException("Invalid order at byte " + (offset + lineStart));
+        }
+        return new IOException("Invalid order at line " + lineNumber);
+    }
+}
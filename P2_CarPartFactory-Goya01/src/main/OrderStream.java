@@ -0,0 +1,79 @@
+/*
+* This class reads the orders of an orders.csv file one at a time instead of loading the whole file.
+* Every order gets an arrival day from its position in the file: the first ordersPerDay orders arrive on day 1,
+* the next ordersPerDay on day 2 and so on. Orders are only read when they arrive, so the orders of days
+* that are not simulated are never read.
+* parser: Reads the orders of the file, it is left after the last order that was returned
+* ordersPerDay: The number of orders that arrive each day
+* ordersRead: The number of orders returned so far
+* finished: True when the end of the file was reached
+*/
+package main;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+public class OrderStream implements Closeable {
+    private OrderParser parser;
+    private int ordersPerDay;
+    private long ordersRead;
+    private boolean finished;
+
+    /**
+    * Opens the orders file and skips its header. Order k of the file (counting from 0) arrives on
+    * day k / ordersPerDay + 1. The stream has to be closed by whoever opened it.
+    * @param path (String) The path to the orders.csv file
+    * @param ordersPerDay (int) The number of orders that arrive each day
+    * @throws IOException if the file is not found
+    */
+
+    public OrderStream(String path, int ordersPerDay) throws IOException {
+        if (ordersPerDay < 1) {
+            throw new IllegalArgumentException("Orders per day must be at least 1");
+        }
+        this.parser = new OrderParser(new FileInputStream(path), true);
+        this.ordersPerDay = ordersPerDay;
+        this.ordersRead = 0;
+        this.finished = false;
+    }
+
+    public int getOrdersPerDay() {
+        return ordersPerDay;
+    }
+
+    /**
+    * Returns the day the next order arrives, ordersRead / ordersPerDay + 1.
+    * @return (long) The arrival day of the next order, -1 once the end of the file was reached
+    */
+
+    public long nextArrivalDay() {
+        return finished ? -1 : ordersRead / ordersPerDay + 1;
+    }
+
+    /**
+    * Reads the next order if it arrives on or before the given day.
+    * @param day (int) The current day
+    * @return (Order) The next order, null if it arrives after day or there are no more orders
+    * @throws IOException if the file can't be read
+    */
+
+    public Order next(int day) throws IOException {
+        if (finished || nextArrivalDay() > day) {
+            return null;
+        }
+        Order order = parser.next();
+        if (order == null) {
+            finished = true;
+            return null;
+        }
+        ordersRead++;
+        return order;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        parser.close();
+    }
+}
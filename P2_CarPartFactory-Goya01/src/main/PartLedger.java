@@ -0,0 +1,286 @@
+/*
+* This class is a ledger of produced parts stored by columns instead of as CarPart objects.
+* Every part is a row and each attribute has its own array:
+* ids: The id of the part of each row
+* weights: The weight of the part of each row
+* defects: A bitset, bit i is on if the part of row i is defective
+* typeIndexes: The position in types of the PartType of each row, so the id and name are stored once per type
+* types: The part types that are in the ledger, each id, name and weight is there once
+* typeIndexById: Maps a part id to the position in types of the last type added with that id
+* nextTypeWithId: For each position of types, the position of the previous type with the same id (-1 if none)
+* Appending a row doesn't create any object (the arrays only grow from time to time) and scanning
+* a column is a walk over one array. get() returns a PartView, a CarPart that reads and writes a row.
+*/
+package main;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import data_structures.IntIntMap;
+
+public class PartLedger {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] ids;
+    private double[] weights;
+    private long[] defects;
+    private int[] typeIndexes;
+    private PartType[] types;
+    private int[] nextTypeWithId;
+    private int typeCount;
+    private IntIntMap typeIndexById;
+    private int size;
+
+    public PartLedger() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+    * Creates an empty ledger with room for initialCapacity rows before growing.
+    * @param initialCapacity (int) The initial number of rows
+    */
+
+    public PartLedger(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.ids = new int[initialCapacity];
+        this.weights = new double[initialCapacity];
+        this.defects = new long[(initialCapacity + 63) >>> 6];
+        this.typeIndexes = new int[initialCapacity];
+        this.types = new PartType[4];
+        this.nextTypeWithId = new int[4];
+        this.typeCount = 0;
+        this.typeIndexById = new IntIntMap();
+        this.size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+    * Removes every row. The arrays and the types are kept so the ledger can be filled again without growing.
+    */
+
+    public void clear() {
+        Arrays.fill(defects, 0, (size + 63) >>> 6, 0L);
+        size = 0;
+    }
+
+    /**
+    * Adds a part at the end of the ledger.
+    * @param type (PartType) The type of the part
+    * @param weight (double) The weight of the part
+    * @param isDefective (boolean) Whether the part is defective
+    * @return (int) The row of the new part
+    */
+
+    public int append(PartType type, double weight, boolean isDefective) {
+        if (size == ids.length) {
+            reallocate();
+        }
+        int row = size++;
+        ids[row] = type.getId();
+        weights[row] = weight;
+        typeIndexes[row] = typeIndex(type);
+        if (isDefective) {
+            defects[row >>> 6] |= 1L << row;
+        }
+        return row;
+    }
+
+    /**
+    * Adds a copy of part at the end of the ledger, the part itself is not kept.
+    * @param part (CarPart) The part to add
+    * @return (int) The row of the new part
+    */
+
+    public int append(CarPart part) {
+        return append(part.getType(), part.getWeight(), part.isDefective());
+    }
+
+    public int getId(int row) {
+        checkRow(row);
+        return ids[row];
+    }
+
+    public PartType getType(int row) {
+        checkRow(row);
+        return types[typeIndexes[row]];
+    }
+
+    public String getName(int row) {
+        return getType(row).getName();
+    }
+
+    public double getWeight(int row) {
+        checkRow(row);
+        return weights[row];
+    }
+
+    public boolean isDefective(int row) {
+        checkRow(row);
+        return (defects[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+    * Changes the id of the part at row. Like CarPart.setId(), the row gets a type of its own.
+    */
+
+    public void setId(int row, int id) {
+        PartType type = getType(row);
+        ids[row] = id;
+        typeIndexes[row] = typeIndex(new PartType(id, type.getName(), type.getWeight()));
+    }
+
+    /**
+    * Changes the name of the part at row. Like CarPart.setName(), the row gets a type of its own.
+    */
+
+    public void setName(int row, String name) {
+        PartType type = getType(row);
+        typeIndexes[row] = typeIndex(new PartType(type.getId(), name, type.getWeight()));
+    }
+
+    public void setWeight(int row, double weight) {
+        checkRow(row);
+        weights[row] = weight;
+    }
+
+    public void setDefective(int row, boolean isDefective) {
+        checkRow(row);
+        if (isDefective) {
+            defects[row >>> 6] |= 1L << row;
+        }
+        else {
+            defects[row >>> 6] &= ~(1L << row);
+        }
+    }
+
+    /**
+    * Returns a view of the part at row. The view doesn't copy anything, its getters and setters
+    * use the row of the ledger, so it is only valid until the ledger is cleared.
+    * @param row (int) The row of the part
+    * @return (PartView) The part at row
+    */
+
+    public PartView get(int row) {
+        checkRow(row);
+        return new PartView(this, row);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+    * Returns the position of type in the types table. Parts of the same machine share their type so
+    * that is usually a reference check. A different instance with the same id, name and weight is reused,
+    * so renaming rows back and forth doesn't keep adding types.
+    */
+
+    private int typeIndex(PartType type) {
+        int first = typeIndexById.getOrDefault(type.getId(), -1);
+        for (int index = first; index != -1; index = nextTypeWithId[index]) {
+            PartType other = types[index];
+            if (other == type || (Objects.equals(other.getName(), type.getName())
+                    && Double.compare(other.getWeight(), type.getWeight()) == 0)) {
+                return index;
+            }
+        }
+        if (typeCount == types.length) {
+            types = Arrays.copyOf(types, types.length * 2);
+            nextTypeWithId = Arrays.copyOf(nextTypeWithId, types.length);
+        }
+        types[typeCount] = type;
+        nextTypeWithId[typeCount] = first;
+        typeIndexById.putInt(type.getId(), typeCount);
+        return typeCount++;
+    }
+
+    /**
+    * Grows every column by half (at least one word of the bitset).
+    */
+
+    private void reallocate() {
+        int newCapacity = ids.length + Math.max(1, ids.length >> 1);
+        if (newCapacity < 0) {
+            throw new OutOfMemoryError("Ledger is too big");
+        }
+        ids = Arrays.copyOf(ids, newCapacity);
+        weights = Arrays.copyOf(weights, newCapacity);
+        typeIndexes = Arrays.copyOf(typeIndexes, newCapacity);
+        defects = Arrays.copyOf(defects, (newCapacity + 63) >>> 6);
+    }
+
+    /**
+    * A CarPart that is a row of a PartLedger. It doesn't use the fields of CarPart, every getter
+    * and setter goes to the columns of the ledger.
+    */
+
+    public static class PartView extends CarPart {
+        private final PartLedger ledger;
+        private final int row;
+
+        private PartView(PartLedger ledger, int row) {
+            this.ledger = ledger;
+            this.row = row;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        @Override
+        public PartType getType() {
+            return ledger.getType(row);
+        }
+
+        @Override
+        public int getId() {
+            return ledger.getId(row);
+        }
+
+        @Override
+        public void setId(int id) {
+            ledger.setId(row, id);
+        }
+
+        @Override
+        public String getName() {
+            return ledger.getName(row);
+        }
+
+        @Override
+        public void setName(String name) {
+            ledger.setName(row, name);
+        }
+
+        @Override
+        public double getWeight() {
+            return ledger.getWeight(row);
+        }
+
+        @Override
+        public void setWeight(double weight) {
+            ledger.setWeight(row, weight);
+        }
+
+        @Override
+        public boolean isDefective() {
+            return ledger.isDefective(row);
+        }
+
+        @Override
+        public void setDefective(boolean isDefective) {
+            ledger.setDefective(row, isDefective);
+        }
+    }
+}
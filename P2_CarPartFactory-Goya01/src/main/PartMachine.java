@@ -6,27 +6,43 @@
 * period: The period of the machine
 * weightError: The weight error of the machine
 * chanceOfDefective: The chance of defective parts that the machine produces
-* timer: A queue that holds the time values of the machine
-* conveyorBelt: A queue that holds the parts that the machine has produced
+* timer: A queue that holds the time values of the machine (circular array, see ArrayQueue)
+* conveyorBelt: A 10 slot belt that holds the parts that the machine has produced (see ConveyorBelt),
+*   the getter and setter use the Queue interface
 * totalPartsProduced: The total number of parts that the machine has produced
+* seed: The seed of the random weights of the parts, the same seed always gives the same weights
 * Implemented getters and setters for all the attributes.
 */
 package main;
 
 import java.util.LinkedList;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
 
-import data_structures.ListQueue;
+import data_structures.ArrayQueue;
+import data_structures.ConveyorBelt;
 import interfaces.Queue;
 
 public class PartMachine {
+    // Number of slots on every conveyor belt
+    public static final int BELT_SIZE = 10;
+    // What SplittableRandom adds to its state for every value (its golden ratio gamma)
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+
     private int id;
     private CarPart part;
     private int period;
     private double weightError;
     private int chanceOfDefective;
     private Queue<Integer> timer;
-    private Queue<CarPart> conveyorBelt;
+    private ConveyorBelt<CarPart> conveyorBelt;
     private int totalPartsProduced;
+    private long seed;
+    // Minutes that already passed but haven't been applied to the timer queue yet (see idle())
+    private int pendingTicks;
+    // Position of the only 0 in the timer queue counting from its front (before pendingTicks),
+    // -1 if unknown or if the timer doesn't have exactly one 0
+    private int zeroOffset = -1;
 
     public PartMachine() {
         
@@ -42,23 +58,36 @@ public class PartMachine {
     */
 
     public PartMachine(int id, CarPart p1, int period, double weightError, int chanceOfDefective) {
+        this(id, p1, period, weightError, chanceOfDefective, new SplittableRandom().nextLong());
+    }
+
+    /**
+    * Same as the other constructor but the weights of the parts come from the given seed,
+    * so two machines with the same seed produce exactly the same parts.
+    * @param id (int) The unique id of the machine
+    * @param p1  (CarPart) The part that the machine produces
+    * @param period  (int) The period of the machine
+    * @param weightError (double) The weight error of the machine
+    * @param chanceOfDefective (int) The chance of defective parts that the machine produces
+    * @param seed (long) The seed of the random weights
+    */
+
+    public PartMachine(int id, CarPart p1, int period, double weightError, int chanceOfDefective, long seed) {
         this.id = id;
         this.part = p1;
         this.period = period;
         this.weightError = weightError;
         this.chanceOfDefective = chanceOfDefective;
         
-        timer = new ListQueue<Integer>();
+        timer = new ArrayQueue<Integer>(period);
         for (int i = period - 1; i >= 0; i--) {
             timer.enqueue(i);
         }
         
-        conveyorBelt = new ListQueue<CarPart>();
-        for (int i = 0; i < 10; i++) {
-            conveyorBelt.enqueue(null);
-        }
+        conveyorBelt = new ConveyorBelt<CarPart>(BELT_SIZE);
         
         totalPartsProduced = 0;
+        this.seed = seed;
     }
     public int getId() {
         return id;
@@ -67,10 +96,34 @@ public class PartMachine {
         this.id = id;
     }
     public Queue<Integer> getTimer() {
+        syncTimer();
+        // The caller may change the queue, so we have to look for the 0 again
+        zeroOffset = -1;
         return timer;
     }
+    /**
+    * Returns the values of the timer from front to back. Unlike getTimer() the queue is not given out,
+    * so the machine keeps the position of its 0 (used by FactoryCheckpoint).
+    * @return (int[]) The timer values
+    */
+
+    int[] getTimerValues() {
+        syncTimer();
+        int[] values = new int[timer.size()];
+        // Going around the timer once leaves it as it was
+        for (int i = 0; i < values.length; i++) {
+            values[i] = timer.dequeue();
+            timer.enqueue(values[i]);
+        }
+        return values;
+    }
     public void setTimer(Queue<Integer> timer) {
         this.timer = timer;
+        this.pendingTicks = 0;
+        this.zeroOffset = -1;
+    }
+    public int getPeriod() {
+        return period;
     }
     public CarPart getPart() {
         return part;
@@ -81,8 +134,25 @@ public class PartMachine {
     public Queue<CarPart> getConveyorBelt() {
         return conveyorBelt;
     }
+    /**
+    * Sets the conveyor belt. Any other kind of queue is copied into a ConveyorBelt with the same slots.
+    * @param conveyorBelt (Queue<CarPart>) The slots of the belt from front to back, null for an empty slot
+    */
+
     public void setConveyorBelt(Queue<CarPart> conveyorBelt) {
-        this.conveyorBelt = conveyorBelt;
+        if (conveyorBelt instanceof ConveyorBelt) {
+            this.conveyorBelt = (ConveyorBelt<CarPart>) conveyorBelt;
+            return;
+        }
+        ConveyorBelt<CarPart> belt = new ConveyorBelt<CarPart>(Math.max(1, conveyorBelt.size()));
+        belt.clear();
+        // Going around the queue once leaves it as it was
+        for (int i = 0; i < conveyorBelt.size(); i++) {
+            CarPart slot = conveyorBelt.dequeue();
+            belt.enqueue(slot);
+            conveyorBelt.enqueue(slot);
+        }
+        this.conveyorBelt = belt;
     }
     public int getTotalPartsProduced() {
         return totalPartsProduced;
@@ -90,6 +160,12 @@ public class PartMachine {
     public void setTotalPartsProduced(int count) {
         this.totalPartsProduced = count;
     }
+    public long getSeed() {
+        return seed;
+    }
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
     public double getPartWeightError() {
         return weightError;
     }
@@ -104,14 +180,21 @@ public class PartMachine {
     }
 
     /**
-    * Resets the conveyor belt by removing all the parts and adding null values to it.
+    * Resets the conveyor belt by emptying all of its slots.
     */
 
     public void resetConveyorBelt() {
-        for (int i = 0; i < 10; i++) {
-            conveyorBelt.dequeue();
-            conveyorBelt.enqueue(null);
-        }
+        conveyorBelt.reset();
+    }
+
+    /**
+    * Gives every part left on the conveyor belt to the consumer (front to back) and empties the belt.
+    * Used at the end of the day instead of getRemainingConveyorBelt() + resetConveyorBelt().
+    * @param consumer (Consumer<CarPart>) Receives each part on the belt
+    */
+
+    public void flushConveyorBelt(Consumer<? super CarPart> consumer) {
+        conveyorBelt.drainTo(consumer);
     }
 
     /**
@@ -120,11 +203,115 @@ public class PartMachine {
     */
 
     public int tickTimer() {
+        syncTimer();
         int time = timer.dequeue();
         timer.enqueue(time);
+        if (zeroOffset != -1) {
+            zeroOffset = Math.floorMod(zeroOffset - 1, timer.size());
+        }
         return time;
     }
 
+    /**
+    * Applies the minutes skipped by idle() and producePart() to the timer queue.
+    * Since the timer is a cycle we only need to rotate it (pending % size) times.
+    */
+
+    private void syncTimer() {
+        if (pendingTicks > 0) {
+            int rotations = pendingTicks % timer.size();
+            pendingTicks = 0;
+            for (int i = 0; i < rotations; i++) {
+                timer.enqueue(timer.dequeue());
+            }
+            if (zeroOffset != -1) {
+                zeroOffset = Math.floorMod(zeroOffset - rotations, timer.size());
+            }
+        }
+    }
+
+    /**
+    * Counts a minute (or many) that skipped the timer queue. Kept below the timer size so it can't overflow.
+    */
+
+    private void addPendingTicks(int minutes) {
+        pendingTicks = (pendingTicks + minutes % timer.size()) % timer.size();
+    }
+
+    /**
+    * Returns the number of minutes until the machine produces its next part,
+    * where 1 means the next call to produceCarPart() produces.
+    * When the timer has a single 0 (like the one built by the constructor) its position is remembered,
+    * so after the first call this is O(1).
+    * @return (int) Minutes until the next part, -1 if the timer never reaches 0
+    */
+
+    public int minutesUntilProduction() {
+        if (zeroOffset != -1) {
+            return Math.floorMod(zeroOffset - pendingTicks, timer.size()) + 1;
+        }
+        syncTimer();
+        int result = -1;
+        int zeros = 0;
+        // Rotate the whole timer once so it ends up as it started
+        for (int i = 0; i < timer.size(); i++) {
+            int time = timer.dequeue();
+            if (time == 0) {
+                if (result == -1) {
+                    result = i + 1;
+                }
+                zeros++;
+            }
+            timer.enqueue(time);
+        }
+        if (zeros == 1) {
+            zeroOffset = result - 1;
+        }
+        return result;
+    }
+
+    /**
+    * Creates the next car part with a random weight and checks if it is defective.
+    * @return (CarPart) The new car part
+    */
+
+    private CarPart makeCarPart() {
+        CarPart newCarPart = new CarPart(part.getType(), partWeight(totalPartsProduced), isPartDefective(totalPartsProduced));
+        totalPartsProduced++;
+        return newCarPart;
+    }
+
+    /**
+    * Returns the random weight of the part with the given number (the value of totalPartsProduced when it is made).
+    * The machine has a single random stream, new SplittableRandom(seed), and part n gets its (n + 1)th nextDouble().
+    * SplittableRandom only adds SEED_GAMMA to its state for every value, so instead of keeping one and drawing
+    * a value per part, the state of part n is computed from its number and mixed the same way.
+    * That way no object is created per part, produceBatch() can jump over the parts that are lost without
+    * drawing their values, every way of running the machine gives the same weights, and seed and
+    * totalPartsProduced are all a checkpoint needs to keep the stream.
+    */
+
+    private double partWeight(int partNumber) {
+        double minWeight = part.getWeight() - weightError;
+        double maxWeight = part.getWeight() + weightError;
+        double random = (mix64(seed + (partNumber + 1L) * SEED_GAMMA) >>> 11) * 0x1.0p-53;
+        return minWeight + random * (maxWeight - minWeight);
+    }
+
+    /**
+    * The function SplittableRandom uses to turn its state into a 64-bit value.
+    */
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private boolean isPartDefective(int partNumber) {
+        return (partNumber % chanceOfDefective) == 0;
+    }
+
     /**
     * Produces a car part and adds it to the conveyor belt.
     * @return (CarPart) The car part that was produced
@@ -134,23 +321,130 @@ public class PartMachine {
         int timeValue = tickTimer();
         
         if (timeValue == 0) {
-            double minWeight = part.getWeight() - weightError;
-            double maxWeight = part.getWeight() + weightError;
-            double randomWeight = minWeight + Math.random() * (maxWeight - minWeight);
-    
-            int chanceOfDefective = this.chanceOfDefective;
-            boolean isDefective = (totalPartsProduced % chanceOfDefective) == 0;
-            CarPart newCarPart = new CarPart(part.getId(), part.getName(), randomWeight, isDefective);
-            conveyorBelt.enqueue(newCarPart);
-            totalPartsProduced++;
-            return conveyorBelt.dequeue();
+            return conveyorBelt.advance(makeCarPart());
         } else {
-            conveyorBelt.enqueue(null);
-            conveyorBelt.dequeue();
+            conveyorBelt.advance(null);
             return null;
         }
     }
 
+    /**
+    * Runs the machine for the given number of minutes in which the timer doesn't reach 0.
+    * Same as calling produceCarPart() that many times, parts that fall off the belt are lost too,
+    * but the belt moves at most 10 slots and the timer is only rotated when someone needs it.
+    * @param minutes (int) The number of minutes without production
+    */
+
+    public void idle(int minutes) {
+        conveyorBelt.skip(minutes);
+        addPendingTicks(minutes);
+    }
+
+    /**
+    * Runs the machine for the given number of minutes in one step. It gives the same parts, counters,
+    * timer and belt as calling produceCarPart() that many times, and emitted parts reach output in the
+    * same order. The only difference is that parts that would fall off the belt and be lost are
+    * counted but never created.
+    *
+    * A part produced on minute t leaves the belt on minute t + 10 (the length of the belt), and it's only
+    * kept if the machine produces on that minute too, which happens only when the period divides 10.
+    * For the other periods nothing is emitted after the first 10 minutes, so we jump to 10 minutes
+    * before the end just counting the parts. That makes the cost O(1) plus the number of emitted parts.
+    * If the timer doesn't have exactly one 0 we fall back to calling produceCarPart() every minute.
+    * @param minutes (int) The number of minutes to run
+    * @param output (Consumer<CarPart>) Receives every part that leaves the belt
+    */
+
+    public void produceBatch(int minutes, Consumer<? super CarPart> output) {
+        int next = minutesUntilProduction();
+        if (next == -1 || zeroOffset == -1) {
+            if (next == -1) {
+                idle(minutes);
+                return;
+            }
+            for (int i = 0; i < minutes; i++) {
+                CarPart producedPart = produceCarPart();
+                if (producedPart != null) {
+                    output.accept(producedPart);
+                }
+            }
+            return;
+        }
+        int cycle = timer.size();
+        int beltSize = conveyorBelt.size();
+        boolean keepsParts = beltSize % cycle == 0;
+        // Minutes of this batch that already ran
+        int elapsed = 0;
+        while (elapsed < minutes) {
+            if (!keepsParts && elapsed >= beltSize && minutes - elapsed > beltSize) {
+                // Every part produced until 10 minutes before the end falls off the belt, just count them
+                int jump = minutes - beltSize - elapsed;
+                int produced = next > elapsed + jump ? 0 : (elapsed + jump - next) / cycle + 1;
+                totalPartsProduced += produced;
+                next += produced * cycle;
+                idle(jump);
+                elapsed += jump;
+            }
+            else if (next > minutes) {
+                idle(minutes - elapsed);
+                elapsed = minutes;
+            }
+            else {
+                idle(next - elapsed - 1);
+                CarPart producedPart = producePart();
+                if (producedPart != null) {
+                    output.accept(producedPart);
+                }
+                elapsed = next;
+                next += cycle;
+            }
+        }
+    }
+
+    /**
+    * Runs the machine for the given number of minutes like produceBatch(minutes, output) and appends every part
+    * that leaves the belt to ledger. When the period divides the length of the belt every part made in the middle
+    * of the batch leaves the belt before the batch ends, so those parts go straight into the ledger as their
+    * weight and defect flag and are never created as CarPart objects. Only the parts that are on the belt
+    * during the first and last 10 minutes are objects, so the allocations don't grow with the length of the batch.
+    * @param minutes (int) The number of minutes to run
+    * @param ledger (PartLedger) Where the parts that leave the belt are appended
+    */
+
+    public void produceBatch(int minutes, PartLedger ledger) {
+        int beltSize = conveyorBelt.size();
+        int next = minutesUntilProduction();
+        if (next == -1 || zeroOffset == -1 || beltSize == 0 || beltSize % timer.size() != 0 || minutes <= 2 * beltSize) {
+            produceBatch(minutes, ledger::append);
+            return;
+        }
+        // After the first 10 minutes the belt only has parts of this batch, all of them made on a production
+        // minute. Each one leaves the belt 10 minutes later, which is a production minute too, so they are all kept.
+        produceBatch(beltSize, ledger::append);
+        conveyorBelt.drainTo(ledger::append);
+        // The parts made until 10 minutes before the end leave the belt in the order they are made
+        int middle = minutes - 2 * beltSize;
+        PartType type = part.getType();
+        for (int minute = minutesUntilProduction(); minute <= middle; minute += timer.size()) {
+            ledger.append(type, partWeight(totalPartsProduced), isPartDefective(totalPartsProduced));
+            totalPartsProduced++;
+        }
+        // The belt is empty now, like it would be once those parts are gone
+        idle(middle);
+        produceBatch(beltSize, ledger::append);
+    }
+
+    /**
+    * Produces a part on a minute where the timer reaches 0 (see minutesUntilProduction()).
+    * Same as produceCarPart() on that minute, without rotating the timer.
+    * @return (CarPart) The car part that fell off the belt, null if there was none
+    */
+
+    public CarPart producePart() {
+        addPendingTicks(1);
+        return conveyorBelt.advance(makeCarPart());
+    }
+
     /**
     * Returns the remaining parts on the conveyor belt.
     * @return (LinkedList<CarPart>) The remaining parts on the conveyor belt
@@ -158,12 +452,10 @@ public class PartMachine {
 
     public LinkedList<CarPart> getRemainingConveyorBelt() {
         LinkedList<CarPart> remaining = new LinkedList<CarPart>();
-        for (int i = 0; i < conveyorBelt.size(); i++) {
-            CarPart part = conveyorBelt.dequeue();
+        for (CarPart part : conveyorBelt) {
             if (part != null) {
                 remaining.add(part);
             }
-            conveyorBelt.enqueue(part);
         }
         return remaining;
     }
@@ -189,17 +481,15 @@ public class PartMachine {
         // String we will print
         String str = "";
         // Iterate through the conveyor belt
-        for(int i = 0; i < this.getConveyorBelt().size(); i++){
+        for (CarPart slot : conveyorBelt) {
             // When the current position is empty
-            if (this.getConveyorBelt().front() == null) {
+            if (slot == null) {
                 str = "_" + str;
             }
             // When there is a CarPart
             else {
                 str = "|P|" + str;
             }
-            // Rotate the values
-            this.getConveyorBelt().enqueue(this.getConveyorBelt().dequeue());
         }
         System.out.println("|Machine " + this.getId() + "|" + str);
     }
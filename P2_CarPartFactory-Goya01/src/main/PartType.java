@@ -0,0 +1,39 @@
+/*
+* This class represents a type of car part, the data that every part of the same kind shares.
+* It is immutable, so one instance is shared by every part produced from the same catalog part
+* (the parts only keep a reference to it) and two parts are of the same type if they point to the same instance.
+* id: The unique id of the part
+* name: The name of the part
+* weight: The weight the parts should have (each produced part has its own weight)
+*/
+package main;
+
+public final class PartType {
+    private final int id;
+    private final String name;
+    private final double weight;
+
+    public PartType(int id, String name, double weight) {
+        this.id = id;
+        this.name = name;
+        this.weight = weight;
+    }
+
+    public int getId() {
+        return id;
+    }
+    public String getName() {
+        return name;
+    }
+    public double getWeight() {
+        return weight;
+    }
+
+    /**
+    * Returns the name of the part type as its string representation
+    * @return (String) The part name
+    */
+    public String toString() {
+        return this.getName();
+    }
+}
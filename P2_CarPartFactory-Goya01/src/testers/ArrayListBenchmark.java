@@ -0,0 +1,137 @@
+package testers;
+
+import data_structures.ArrayList;
+
+/**
+ * Times ArrayList on a list as big as the inventory of a large factory, next to LoopArrayList which
+ * grows and shifts the way ArrayList did before it used System.arraycopy (one element at a time, and
+ * growing to size * 2 with a copy loop that also nulls the old array).
+ * Run it with: java testers.ArrayListBenchmark [size] [operations]
+ * Every measurement runs a few rounds and prints the fastest one, so the JIT has warmed up.
+ */
+public class ArrayListBenchmark {
+    private static final int ROUNDS = 5;
+
+    // Keeps the results alive so the JIT can't drop the work
+    private static long sink;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        System.out.println("size " + size + ", " + operations + " operations at the front, best of " + ROUNDS + " rounds");
+
+        long arrayList = Long.MAX_VALUE;
+        long loopList = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            arrayList = Math.min(arrayList, timeAppends(new ArrayList<Integer>(0), size));
+            loopList = Math.min(loopList, timeAppends(new LoopArrayList<Integer>(1), size));
+        }
+        print("append " + size, arrayList, loopList);
+
+        ArrayList<Integer> list = new ArrayList<Integer>();
+        LoopArrayList<Integer> loop = new LoopArrayList<Integer>(1);
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+            loop.add(i);
+        }
+        arrayList = Long.MAX_VALUE;
+        loopList = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                list.add(0, i);
+            }
+            for (int i = 0; i < operations; i++) {
+                list.remove(0);
+            }
+            arrayList = Math.min(arrayList, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                loop.add(0, i);
+            }
+            for (int i = 0; i < operations; i++) {
+                loop.remove(0);
+            }
+            loopList = Math.min(loopList, System.nanoTime() - start);
+        }
+        sink += list.first() + loop.first();
+        print("add(0) + remove(0)", arrayList, loopList);
+    }
+
+    private static long timeAppends(ArrayList<Integer> list, int size) {
+        long start = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        long time = System.nanoTime() - start;
+        sink += list.size();
+        return time;
+    }
+
+    private static long timeAppends(LoopArrayList<Integer> list, int size) {
+        long start = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        long time = System.nanoTime() - start;
+        sink += list.size;
+        return time;
+    }
+
+    private static void print(String operation, long arrayList, long loopList) {
+        System.out.printf("%-20s ArrayList %8.1f ms   loops %8.1f ms   %.1fx%n", operation,
+                arrayList / 1e6, loopList / 1e6, (double) loopList / arrayList);
+    }
+
+    /**
+     * The parts of the old ArrayList that the benchmark compares with.
+     */
+    @SuppressWarnings("unchecked")
+    private static class LoopArrayList<E> {
+        private E[] elements;
+        private int size;
+
+        public LoopArrayList(int initialCapacity) {
+            this.elements = (E[]) new Object[initialCapacity];
+        }
+
+        public void add(E obj) {
+            if (size == elements.length) {
+                reallocate();
+            }
+            elements[size++] = obj;
+        }
+
+        public void add(int index, E obj) {
+            if (size == elements.length) {
+                reallocate();
+            }
+            for (int i = size; i > index; i--) {
+                elements[i] = elements[i - 1];
+            }
+            elements[index] = obj;
+            size++;
+        }
+
+        public void remove(int index) {
+            for (int i = index; i < size - 1; i++) {
+                elements[i] = elements[i + 1];
+            }
+            elements[--size] = null;
+        }
+
+        public E first() {
+            return elements[0];
+        }
+
+        private void reallocate() {
+            E[] temp = (E[]) new Object[size * 2];
+            for (int i = 0; i < elements.length; i++) {
+                temp[i] = elements[i];
+                elements[i] = null;
+            }
+            elements = temp;
+        }
+    }
+}
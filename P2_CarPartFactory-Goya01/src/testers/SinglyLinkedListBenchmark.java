@@ -0,0 +1,51 @@
+package testers;
+
+import data_structures.SinglyLinkedList;
+
+/**
+ * Times building a SinglyLinkedList by appending. add(E) uses the tail node, add(size(), E) still walks
+ * the chain to find the last node, which is what add(E) did before the list kept a tail.
+ * Doubling the size doubles the time of add(E) (linear) and about quadruples the time of add(size(), E) (quadratic).
+ * Run it with: java testers.SinglyLinkedListBenchmark [size]
+ * The walking version only goes up to size / 20, at 1M it would take minutes.
+ */
+public class SinglyLinkedListBenchmark {
+    private static final int ROUNDS = 3;
+
+    // Keeps the results alive so the JIT can't drop the work
+    private static long sink;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        System.out.println("best of " + ROUNDS + " rounds");
+        for (int n = size / 4; n <= size; n *= 2) {
+            print("add(E)", n, time(n, false));
+        }
+        for (int n = size / 80; n <= size / 20; n *= 2) {
+            print("add(size(), E)", n, time(n, true));
+        }
+    }
+
+    private static long time(int n, boolean walk) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            SinglyLinkedList<Integer> list = new SinglyLinkedList<Integer>();
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                if (walk) {
+                    list.add(list.size(), i);
+                }
+                else {
+                    list.add(i);
+                }
+            }
+            best = Math.min(best, System.nanoTime() - start);
+            sink += list.last();
+        }
+        return best;
+    }
+
+    private static void print(String operation, int n, long time) {
+        System.out.printf("%-16s %9d elements %10.1f ms %10.1f ns per element%n", operation, n, time / 1e6, (double) time / n);
+    }
+}
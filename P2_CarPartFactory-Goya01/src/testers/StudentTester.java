@@ -2,25 +2,61 @@ package testers;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
 
+import data_structures.ArrayList;
+import data_structures.ArrayQueue;
+import data_structures.ArrayStack;
 import data_structures.BasicHashFunction;
+import data_structures.CircularArrayList;
+import data_structures.ConveyorBelt;
+import data_structures.DoublyLinkedList;
+import data_structures.HashTableLP;
 import data_structures.HashTableSC;
+import data_structures.IntIntMap;
+import data_structures.LinkedStack;
+import data_structures.ListQueue;
+import data_structures.SinglyLinkedList;
+import interfaces.Entry;
 import interfaces.List;
 import interfaces.Map;
+import interfaces.Queue;
 import interfaces.Stack;
 import main.CarPart;
 import main.CarPartFactory;
+import main.FactorySnapshot;
 import main.Order;
+import main.OrderFulfillment;
+import main.OrderParser;
+import main.OrderStream;
+import main.PartLedger;
 import main.PartMachine;
+import main.PartType;
 
 public class StudentTester {
 
@@ -30,6 +66,151 @@ public class StudentTester {
     private CarPart part3;
     private PartMachine machine1;
     private CarPartFactory factory;
+
+    /**
+     * Home slot of an int key in a table with capacity slots, mixed the same way HashTableLP and IntIntMap do it.
+     * Used to pick keys that end up in a given cluster.
+     */
+    private static int homeSlot(int key, int capacity) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (capacity - 1);
+    }
+
+    /**
+     * Finds different positive keys whose home slots are homes, in the same order.
+     */
+    private static int[] keysWithHomes(int capacity, int... homes) {
+        int[] keys = new int[homes.length];
+        int next = 1;
+        for (int i = 0; i < homes.length; i++) {
+            while (homeSlot(next, capacity) != homes[i]) {
+                next++;
+            }
+            keys[i] = next++;
+        }
+        return keys;
+    }
+
+    /**
+     * Creates a factory from the input files with a fixed seed, so every run mode gets the same parts.
+     */
+    private static CarPartFactory seededFactory(long seed) throws IOException {
+        return new CarPartFactory("input/orders.csv", "input/parts.csv", seed);
+    }
+
+    /**
+     * Runs a factory the way runFactory(days, minutes) did before the machines ran their days in batches:
+     * every minute each machine produces in order, and at the end of the day the belts go to the bin.
+     */
+    private static void runMinuteByMinute(CarPartFactory factory, int days, int minutes) {
+        for (int day = 1; day <= days; day++) {
+            for (int minute = 1; minute <= minutes; minute++) {
+                for (PartMachine machine : factory.getMachines()) {
+                    CarPart producedPart = machine.produceCarPart();
+                    if (producedPart != null) {
+                        factory.getProductionBin().push(producedPart);
+                    }
+                }
+            }
+            for (PartMachine machine : factory.getMachines()) {
+                for (CarPart remaining : machine.getRemainingConveyorBelt()) {
+                    factory.getProductionBin().push(remaining);
+                }
+                machine.resetConveyorBelt();
+            }
+            factory.storeInInventory();
+        }
+        factory.processOrders();
+    }
+
+    /**
+     * Checks that two factories that ran the same days ended up the same: defectives, every part in the inventory
+     * (in order, with its weight), the parts produced by each machine and the fulfilled flag of each order.
+     */
+    private static void assertSameFactory(CarPartFactory expected, CarPartFactory actual, String mode) {
+        for (Integer partId : expected.getPartCatalog().keys()) {
+            assertEquals(expected.getDefectives().get(partId), actual.getDefectives().get(partId),
+                mode + " has different defectives for part " + partId + ".");
+            List<CarPart> expectedParts = expected.getInventory().get(partId);
+            List<CarPart> actualParts = actual.getInventory().get(partId);
+            assertEquals(expectedParts.size(), actualParts.size(), mode + " has a different inventory size for part " + partId + ".");
+            for (int i = 0; i < expectedParts.size(); i++) {
+                CarPart expectedPart = expectedParts.get(i);
+                CarPart actualPart = actualParts.get(i);
+                assertEquals(expectedPart.getId(), actualPart.getId(), mode + " has a part with the wrong id in the inventory.");
+                assertEquals(expectedPart.getWeight(), actualPart.getWeight(), mode + " has a different weight at " + i + " for part " + partId + ".");
+                assertEquals(expectedPart.isDefective(), actualPart.isDefective(), mode + " stored a defective part.");
+            }
+        }
+        for (int i = 0; i < expected.getMachines().size(); i++) {
+            assertEquals(expected.getMachines().get(i).getTotalPartsProduced(), actual.getMachines().get(i).getTotalPartsProduced(),
+                mode + " produced a different amount of parts on machine " + i + ".");
+        }
+        assertEquals(expected.getOrders().size(), actual.getOrders().size(), mode + " has a different amount of orders.");
+        for (int i = 0; i < expected.getOrders().size(); i++) {
+            assertEquals(expected.getOrders().get(i).isFulfilled(), actual.getOrders().get(i).isFulfilled(),
+                mode + " has a different result for order " + expected.getOrders().get(i).getId() + ".");
+        }
+        assertEquals(expected.getProductionBin().size(), actual.getProductionBin().size(), mode + " left different parts in the bin.");
+    }
+
+    /**
+     * Reads every order of an orders file.
+     */
+    private static List<Order> readOrders(String path) throws IOException {
+        List<Order> orders = new ArrayList<Order>();
+        try (OrderParser parser = new OrderParser(new FileInputStream(path), true)) {
+            Order order;
+            while ((order = parser.next()) != null) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Returns a copy of bytes with a little-endian int written at position at.
+     */
+    private static byte[] withInt(byte[] bytes, int at, int value) {
+        byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).order(ByteOrder.LITTLE_ENDIAN).putInt(at, value);
+        return copy;
+    }
+
+    /**
+     * Writes bytes to file and checks that load rejects it with an IOException.
+     */
+    private static void assertRejected(Path file, byte[] bytes, Executable load, String problem) throws IOException {
+        Files.write(file, bytes);
+        assertThrows(IOException.class, load, "Loaded a file with " + problem + ".");
+    }
+
+    /**
+     * Fulfills orders the simple way: one pass over the orders in order, and every order that is not fulfilled
+     * yet and has all its parts in the inventory is fulfilled right away. A part that is not in the inventory can't be fulfilled.
+     */
+    private static void greedyPass(List<Order> orders, Map<Integer, List<CarPart>> inventory) {
+        for (Order order : orders) {
+            if (order.isFulfilled()) {
+                continue;
+            }
+            boolean covered = true;
+            for (Integer partId : order.getRequestedParts().keys()) {
+                List<CarPart> stock = inventory.get(partId);
+                if (stock == null || stock.size() < order.getRequestedParts().get(partId)) {
+                    covered = false;
+                }
+            }
+            if (covered) {
+                order.setFulfilled(true);
+                for (Integer partId : order.getRequestedParts().keys()) {
+                    for (int i = 0; i < order.getRequestedParts().get(partId); i++) {
+                        inventory.get(partId).remove(0);
+                    }
+                }
+            }
+        }
+    }
     
     @Nested
     @DisplayName("CarPart Tests")
@@ -56,6 +237,109 @@ public class StudentTester {
                 () -> assertTrue(!part.isDefective(), "Assigned incorrect defective status")
             );
         }
+        @Test
+        @DisplayName("Testing the empty Car Part constructor and its setters.")
+        public void test3() {
+            part = new CarPart();
+            assertAll(
+                () -> assertEquals(null, part.getType(), "Empty part shouldn't have a type."),
+                () -> assertEquals(0, part.getId(), "Empty part should have id 0."),
+                () -> assertEquals(null, part.getName(), "Empty part should have no name."),
+                () -> assertTrue(!part.isSameType(new CarPart()), "Parts without a type are not of the same type.")
+            );
+            part.setName("Axle");
+            part.setId(3);
+            part.setWeight(12.5);
+            assertAll(
+                () -> assertEquals(3, part.getId(), "Didn't set the id."),
+                () -> assertEquals("Axle", part.getName(), "Setting the id lost the name."),
+                () -> assertEquals(12.5, part.getWeight(), "Didn't set the weight.")
+            );
+        }
+        @Test
+        @DisplayName("Testing that setters only give a part a type of its own when the value changes.")
+        public void testSharedType() {
+            PartType type = new PartType(4, "Gear", 3.0);
+            CarPart first = new CarPart(type, 3.1, false);
+            CarPart second = new CarPart(type, 2.9, true);
+            first.setId(4);
+            first.setName("Gear");
+            assertTrue(first.getType() == type, "Setting the same id and name replaced the shared type.");
+            first.setName("Cog");
+            first.setId(5);
+            assertAll(
+                () -> assertEquals(5, first.getId(), "Didn't set the id."),
+                () -> assertEquals("Cog", first.getName(), "Didn't set the name."),
+                () -> assertTrue(!first.isSameType(second), "Changed part still shares the old type."),
+                () -> assertTrue(second.getType() == type, "Changing one part changed the type of the other."),
+                () -> assertEquals("Gear", type.getName(), "Changed the shared type itself.")
+            );
+        }
+    }
+    @Nested
+    @DisplayName("PartLedger Tests")
+    public class TestPartLedger {
+        @Test
+        @DisplayName("Testing that PartView reads and writes the rows of the ledger")
+        public void testViews() {
+            CarPart template = new CarPart(6, "Piston", 2.0, false);
+            PartLedger ledger = new PartLedger(1);
+            for (int i = 0; i < 100; i++) {
+                ledger.append(template.getType(), 2.0 + i / 100.0, i % 7 == 0);
+            }
+            PartLedger.PartView view = ledger.get(70);
+            assertAll(
+                () -> assertTrue(view.isSameType(template), "View doesn't share the type of its row."),
+                () -> assertEquals(6, view.getId(), "View has the wrong id."),
+                () -> assertEquals("Piston", view.getName(), "View has the wrong name."),
+                () -> assertEquals(2.7, view.getWeight(), "View has the wrong weight."),
+                () -> assertTrue(view.isDefective(), "View has the wrong defective flag.")
+            );
+            view.setWeight(3.5);
+            view.setDefective(false);
+            view.setName("Big Piston");
+            assertAll(
+                () -> assertEquals(3.5, ledger.getWeight(70), "View didn't write the weight to the ledger."),
+                () -> assertTrue(!ledger.isDefective(70), "View didn't write the defective flag to the ledger."),
+                () -> assertEquals("Big Piston", ledger.getName(70), "View didn't rename its row."),
+                () -> assertEquals("Piston", ledger.getName(69), "Renaming a row changed another row."),
+                () -> assertTrue(ledger.isDefective(63), "Changing a row changed another row's flag.")
+            );
+            ledger.clear();
+            assertTrue(ledger.isEmpty(), "Clear didn't remove the rows.");
+            ledger.append(template);
+            assertTrue(!ledger.isDefective(0), "Cleared ledger kept an old defective flag.");
+        }
+        @Test
+        @DisplayName("Testing the types of renamed rows and of types that only differ in weight")
+        public void testTypes() {
+            PartType piston = new PartType(6, "Piston", 2.0);
+            PartLedger ledger = new PartLedger();
+            // Rename rows back and forth between appends of the original type
+            for (int i = 0; i < 6; i++) {
+                int row = ledger.append(piston, 2.0, false);
+                ledger.get(row).setName(i % 2 == 0 ? "Big Piston" : "Piston");
+                ledger.append(piston, 2.0, false);
+            }
+            assertAll(
+                () -> assertTrue(ledger.getType(0) == ledger.getType(4), "Rows renamed to the same name don't share their type."),
+                () -> assertTrue(ledger.getType(2) == piston, "A row renamed back to its name didn't get its type back."),
+                () -> assertTrue(ledger.getType(1) == piston, "An appended row doesn't keep the type it was given."),
+                () -> assertEquals("Big Piston", ledger.getName(0), "Renamed the wrong row.")
+            );
+            ledger.get(3).setId(7);
+            ledger.get(5).setId(7);
+            assertTrue(ledger.getType(3) == ledger.getType(5), "Rows with the same new id don't share their type.");
+            assertEquals(7, ledger.get(5).getId(), "Didn't change the id.");
+
+            // Same id and name but a different weight is a different type
+            int heavy = ledger.append(new PartType(6, "Piston", 3.0), 3.0, false);
+            assertAll(
+                () -> assertEquals(3.0, ledger.getType(heavy).getWeight(), "Merged a type with a different weight."),
+                () -> assertEquals(2.0, ledger.getType(1).getWeight(), "Changed the weight of the first type."),
+                () -> assertTrue(ledger.getType(ledger.append(piston, 2.0, false)) == piston, "Lost the first type with that id.")
+            );
+        }
     }
     @Nested
     @DisplayName("Order Tests")
@@ -94,6 +378,123 @@ public class StudentTester {
         }
     }
     @Nested
+    @DisplayName("OrderParser Tests")
+    public class TestOrderParser {
+        /**
+         * Parses the text of an orders file that starts with a header.
+         */
+        private List<Order> parse(String text) throws IOException {
+            List<Order> orders = new ArrayList<Order>();
+            try (OrderParser parser = new OrderParser(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), true)) {
+                Order order;
+                while ((order = parser.next()) != null) {
+                    orders.add(order);
+                }
+            }
+            return orders;
+        }
+
+        @Test
+        @DisplayName("Testing orders with CRLF line endings, blank lines and spaces between the groups")
+        public void testLineEndings() throws IOException {
+            List<Order> orders = parse("ID,Customer,RequestedParts\r\n1,Ana P\u00e9rez,(2 9)\r\n\r\n"
+                + "2,Bob, (10 4) - (7  1) \r\n\n3,Carl,1 5-(6 2)");
+            assertAll(
+                () -> assertEquals(3, orders.size(), "Didn't skip the blank lines."),
+                () -> assertEquals(1, orders.get(0).getId(), "Didn't return correct order id."),
+                () -> assertEquals("Ana P\u00e9rez", orders.get(0).getCustomerName(), "Didn't decode the customer name."),
+                () -> assertEquals(9, orders.get(0).getRequestedParts().get(2), "Kept the \\r in the last group."),
+                () -> assertEquals("Bob", orders.get(1).getCustomerName(), "Didn't return correct customer name."),
+                () -> assertEquals(2, orders.get(1).getRequestedParts().size(), "Didn't return correct size for requested parts."),
+                () -> assertEquals(4, orders.get(1).getRequestedParts().get(10), "Didn't return correct count for requested part id=10."),
+                () -> assertEquals(1, orders.get(1).getRequestedParts().get(7), "Didn't return correct count for requested part id=7."),
+                () -> assertEquals(5, orders.get(2).getRequestedParts().get(1), "Didn't read a group without parentheses."),
+                () -> assertEquals(2, orders.get(2).getRequestedParts().get(6), "Didn't read the last line without a line break.")
+            );
+        }
+
+        @Test
+        @DisplayName("Testing numbers at the limit of an int")
+        public void testIntLimits() throws IOException {
+            List<Order> orders = parse("ID,Customer,RequestedParts\n2147483647,Ana,(2147483640 2147483646)-(1 2147483647)\n");
+            assertAll(
+                () -> assertEquals(Integer.MAX_VALUE, orders.get(0).getId(), "Didn't read the largest int."),
+                () -> assertEquals(2147483646, orders.get(0).getRequestedParts().get(2147483640), "Didn't read a part id close to the largest int."),
+                () -> assertEquals(Integer.MAX_VALUE, orders.get(0).getRequestedParts().get(1), "Didn't read the largest quantity.")
+            );
+            for (String line : new String[] {"2147483648,Ana,(1 1)", "1,Ana,(2147483648 1)", "1,Ana,(1 2147483650)", "1,Ana,(1 21474836470)"}) {
+                assertThrows(IOException.class, () -> parse("ID,Customer,RequestedParts\n" + line + "\n"), "Accepted a value above the largest int in " + line + ".");
+            }
+        }
+
+        @Test
+        @DisplayName("Testing that malformed lines are rejected")
+        public void testMalformedLines() {
+            String[] requestedParts = {"(2 9 3)-(4 1)", "(2 -9)", "(2 9", "2 9)", "(2)", "()", "", "(2 9)-", "(2 9)(4 1)", "(2 x9)", "(2 99999999999)"};
+            for (String parts : requestedParts) {
+                IOException e = assertThrows(IOException.class, () -> parse("ID,Customer,RequestedParts\r\n1,Ana,(1 1)\r\n2,Bob," + parts + "\r\n"),
+                    "Accepted the requested parts " + parts + ".");
+                assertEquals("Invalid order at line 3", e.getMessage(), "Reported the wrong line for " + parts + ".");
+            }
+            assertThrows(IOException.class, () -> parse("ID,Customer,RequestedParts\n1 (2 9)\n"), "Accepted a line without commas.");
+        }
+
+        @Test
+        @DisplayName("Testing parseFile on a file with more than one chunk against the stream parser")
+        public void testParseFile() throws IOException {
+            // A bit over 8MB (the size of a chunk), with a long line right where the first chunk ends
+            int chunkSize = 8 << 20;
+            StringBuilder text = new StringBuilder("ID,Customer,RequestedParts\r\n");
+            int written = 0;
+            while (text.length() < chunkSize + (1 << 20)) {
+                written++;
+                boolean atBoundary = text.length() < chunkSize && text.length() > chunkSize - 100;
+                text.append(written).append(",Customer ").append(written % 97);
+                for (int i = 0; atBoundary && i < 200; i++) {
+                    text.append('x');
+                }
+                text.append(",(").append(written % 20 + 1).append(' ').append(written % 7 + 1).append(")-(21 ")
+                    .append(written % 3 + 1).append(')').append(written % 2 == 0 ? "\r\n" : "\n");
+                if (written % 1000 == 0) {
+                    text.append("\r\n");
+                }
+            }
+            Path file = Files.createTempFile("orders", ".csv");
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+                List<Order> expected = parse(text.toString());
+                List<Order> orders = new ArrayList<Order>();
+                OrderParser.parseFile(file.toString(), pool, orders);
+                assertEquals(written, expected.size(), "The stream parser lost orders.");
+                assertEquals(expected.size(), orders.size(), "parseFile lost orders.");
+                for (int i = 0; i < orders.size(); i++) {
+                    Order expectedOrder = expected.get(i);
+                    Order order = orders.get(i);
+                    assertEquals(expectedOrder.getId(), order.getId(), "parseFile has the orders in a different order.");
+                    assertEquals(expectedOrder.getCustomerName(), order.getCustomerName(), "Different customer name for order " + order.getId() + ".");
+                    assertEquals(expectedOrder.getRequestedParts().size(), order.getRequestedParts().size(), "Different parts for order " + order.getId() + ".");
+                    for (Integer partId : expectedOrder.getRequestedParts().keys()) {
+                        assertEquals(expectedOrder.getRequestedParts().get(partId), order.getRequestedParts().get(partId),
+                            "Different quantity of part " + partId + " for order " + order.getId() + ".");
+                    }
+                }
+
+                // An invalid line in the second chunk is reported with its position in the file
+                int badLine = text.length();
+                text.append(written + 1).append(",Customer,(2 9 3)\r\n");
+                Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+                IOException e = assertThrows(IOException.class, () -> OrderParser.parseFile(file.toString(), pool, new ArrayList<Order>()),
+                    "parseFile accepted an invalid line.");
+                assertEquals("Invalid order at byte " + badLine, e.getMessage(), "Reported the wrong position.");
+            }
+            finally {
+                pool.shutdown();
+                Files.delete(file);
+            }
+        }
+    }
+    @Nested
     @DisplayName("PartMachine Tests")
     public class TestPartMachine {
         @Test
@@ -237,6 +638,1166 @@ public class StudentTester {
                 () -> assertTrue(part3.isDefective(), "Tenth part would be defective with a 0.2 chance")
             );
         }
+        @Test
+        @DisplayName("Testing that the weights follow one random stream per machine however the machine is run")
+        public void testWeightStream() {
+            CarPart template = new CarPart(3, "Gear", 20.0, false);
+            PartMachine minuteByMinute = new PartMachine(1, template, 1, 2.5, 1000, 77L);
+            PartMachine inBatches = new PartMachine(1, template, 1, 2.5, 1000, 77L);
+            java.util.List<CarPart> expected = new java.util.ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                CarPart producedPart = minuteByMinute.produceCarPart();
+                if (producedPart != null) {
+                    expected.add(producedPart);
+                }
+            }
+            java.util.List<CarPart> batched = new java.util.ArrayList<>();
+            for (int minutes : new int[] {37, 1, 100, 62}) {
+                inBatches.produceBatch(minutes, batched::add);
+            }
+            SplittableRandom stream = new SplittableRandom(77L);
+            assertEquals(190, expected.size(), "Every part should leave the belt after 10 minutes.");
+            assertEquals(expected.size(), batched.size(), "produceBatch emitted a different number of parts.");
+            for (int i = 0; i < expected.size(); i++) {
+                double weight = 17.5 + stream.nextDouble() * 5.0;
+                assertEquals(weight, expected.get(i).getWeight(), "Part " + i + " doesn't have the next weight of the stream.");
+                assertEquals(weight, batched.get(i).getWeight(), "produceBatch gave part " + i + " a different weight.");
+            }
+        }
+    }
+    @Nested
+    @DisplayName("PartMachine Batch Tests")
+    public class TestProduceBatch {
+        /**
+        * Runs two machines with the same seed, one with produceCarPart() every minute and the other with
+        * produceBatch() for the same minutes, and checks they emit the same parts and end in the same state.
+        */
+        private void assertSameRun(PartMachine minuteByMinute, PartMachine batched, int minutes, String what) {
+            Queue<CarPart> expected = runMinutes(minuteByMinute, minutes);
+            Queue<CarPart> emitted = new ListQueue<>();
+            batched.produceBatch(minutes, emitted::enqueue);
+            assertEquals(expected.size(), emitted.size(), what + ": emitted a different amount of parts.");
+            while (!expected.isEmpty()) {
+                CarPart expectedPart = expected.dequeue();
+                CarPart emittedPart = emitted.dequeue();
+                assertEquals(expectedPart.getWeight(), emittedPart.getWeight(), what + ": emitted a different part.");
+                assertEquals(expectedPart.isDefective(), emittedPart.isDefective(), what + ": emitted a part with a different defective flag.");
+            }
+            assertSameMachine(minuteByMinute, batched, what);
+        }
+        private Queue<CarPart> runMinutes(PartMachine machine, int minutes) {
+            Queue<CarPart> emitted = new ListQueue<>();
+            for (int i = 0; i < minutes; i++) {
+                CarPart produced = machine.produceCarPart();
+                if (produced != null) {
+                    emitted.enqueue(produced);
+                }
+            }
+            return emitted;
+        }
+        private void assertSameMachine(PartMachine expected, PartMachine actual, String what) {
+            assertEquals(expected.getTotalPartsProduced(), actual.getTotalPartsProduced(), what + ": counted a different amount of parts.");
+            assertEquals(expected.minutesUntilProduction(), actual.minutesUntilProduction(), what + ": timer is in a different position.");
+            assertEquals(timerContents(expected), timerContents(actual), what + ": timer queues are different.");
+            Queue<CarPart> expectedBelt = expected.getConveyorBelt();
+            Queue<CarPart> actualBelt = actual.getConveyorBelt();
+            assertEquals(expectedBelt.size(), actualBelt.size(), what + ": belts have different lengths.");
+            for (int i = 0; i < expectedBelt.size(); i++) {
+                CarPart expectedSlot = expectedBelt.dequeue();
+                CarPart actualSlot = actualBelt.dequeue();
+                assertEquals(expectedSlot == null, actualSlot == null, what + ": belt slot " + i + " is different.");
+                if (expectedSlot != null) {
+                    assertEquals(expectedSlot.getWeight(), actualSlot.getWeight(), what + ": belt slot " + i + " has a different part.");
+                }
+                expectedBelt.enqueue(expectedSlot);
+                actualBelt.enqueue(actualSlot);
+            }
+        }
+        private String timerContents(PartMachine machine) {
+            Queue<Integer> timer = machine.getTimer();
+            String str = "";
+            for (int i = 0; i < timer.size(); i++) {
+                int time = timer.dequeue();
+                str += time + " ";
+                timer.enqueue(time);
+            }
+            return str;
+        }
+        private PartMachine machine(int period, long seed) {
+            return new PartMachine(1, new CarPart(4, "Gear", 20.0, false), period, 2.0, 3, seed);
+        }
+        @Test
+        @DisplayName("Testing produceBatch against produceCarPart for periods that divide the belt and periods that don't")
+        public void testPeriods() {
+            int[] periods = {1, 2, 5, 10, 3, 4, 7, 13, 25};
+            // Short batches stay inside the first 10 minutes, long ones jump over most of the day
+            int[] lengths = {0, 1, 7, 10, 11, 19, 23, 480, 1001};
+            for (int period : periods) {
+                for (int minutes : lengths) {
+                    PartMachine minuteByMinute = machine(period, period * 31L + minutes);
+                    PartMachine batched = machine(period, period * 31L + minutes);
+                    assertSameRun(minuteByMinute, batched, minutes, "period " + period + ", " + minutes + " minutes");
+                    // A second batch starts with a belt that isn't empty and a timer in the middle of its cycle
+                    assertSameRun(minuteByMinute, batched, minutes + 3, "period " + period + ", second batch");
+                }
+            }
+        }
+        @Test
+        @DisplayName("Testing produceBatch into a PartLedger against produceCarPart")
+        public void testLedger() {
+            for (int period : new int[] {1, 2, 5, 10, 3, 7}) {
+                for (int minutes : new int[] {0, 15, 20, 21, 37, 480}) {
+                    PartMachine minuteByMinute = machine(period, period * 17L + minutes);
+                    PartMachine batched = machine(period, period * 17L + minutes);
+                    String what = "period " + period + ", " + minutes + " minutes";
+                    // The second batch starts with parts on the belt
+                    for (int batch = 0; batch < 2; batch++) {
+                        Queue<CarPart> expected = runMinutes(minuteByMinute, minutes);
+                        PartLedger ledger = new PartLedger();
+                        batched.produceBatch(minutes, ledger);
+                        assertEquals(expected.size(), ledger.size(), what + ": appended a different amount of parts.");
+                        for (int row = 0; row < ledger.size(); row++) {
+                            CarPart expectedPart = expected.dequeue();
+                            assertEquals(expectedPart.getId(), ledger.getId(row), what + ": appended a part with a different id.");
+                            assertEquals(expectedPart.getWeight(), ledger.getWeight(row), what + ": appended a different weight at row " + row + ".");
+                            assertEquals(expectedPart.isDefective(), ledger.isDefective(row), what + ": appended a different defective flag at row " + row + ".");
+                        }
+                        assertSameMachine(minuteByMinute, batched, what);
+                    }
+                }
+            }
+        }
+        @Test
+        @DisplayName("Testing produceBatch with belts flushed in the middle of a day")
+        public void testFlushes() {
+            for (int period : new int[] {2, 3, 10, 13}) {
+                PartMachine minuteByMinute = machine(period, 99L);
+                PartMachine batched = machine(period, 99L);
+                int[] pieces = {4, 17, 1, 240, 9, 333};
+                for (int piece : pieces) {
+                    assertSameRun(minuteByMinute, batched, piece, "period " + period + ", piece of " + piece);
+                    Queue<CarPart> expectedFlush = new ListQueue<>();
+                    Queue<CarPart> actualFlush = new ListQueue<>();
+                    minuteByMinute.flushConveyorBelt(expectedFlush::enqueue);
+                    batched.flushConveyorBelt(actualFlush::enqueue);
+                    assertEquals(expectedFlush.size(), actualFlush.size(), "period " + period + ": flushed a different amount of parts.");
+                    while (!expectedFlush.isEmpty()) {
+                        assertEquals(expectedFlush.dequeue().getWeight(), actualFlush.dequeue().getWeight(), "period " + period + ": flushed a different part.");
+                    }
+                }
+            }
+        }
+        @Test
+        @DisplayName("Testing that produceBatch notices timers changed through getTimer and setTimer")
+        public void testTimerChanges() {
+            PartMachine minuteByMinute = machine(4, 5L);
+            PartMachine batched = machine(4, 5L);
+            assertSameRun(minuteByMinute, batched, 6, "before changing the timer");
+
+            // Changing the queue returned by getTimer has to drop the remembered position of the 0
+            for (PartMachine machine : new PartMachine[] {minuteByMinute, batched}) {
+                machine.minutesUntilProduction();
+                Queue<Integer> timer = machine.getTimer();
+                timer.enqueue(timer.dequeue());
+            }
+            assertSameRun(minuteByMinute, batched, 37, "after rotating the timer");
+
+            // A new timer with a different cycle and the 0 in another place. minutesUntilProduction() makes the
+            // machine remember where the 0 of the old timer is, setTimer has to forget it
+            for (PartMachine machine : new PartMachine[] {minuteByMinute, batched}) {
+                machine.minutesUntilProduction();
+                Queue<Integer> timer = new ListQueue<>();
+                for (int time : new int[] {2, 1, 0, 6, 5, 4, 3}) {
+                    timer.enqueue(time);
+                }
+                machine.setTimer(timer);
+            }
+            assertSameRun(minuteByMinute, batched, 500, "after setting a 7 minute timer");
+
+            // A timer with two zeros can't use the closed form and falls back to minute by minute
+            for (PartMachine machine : new PartMachine[] {minuteByMinute, batched}) {
+                machine.minutesUntilProduction();
+                Queue<Integer> timer = new ListQueue<>();
+                for (int time : new int[] {1, 0, 2, 0, 4}) {
+                    timer.enqueue(time);
+                }
+                machine.setTimer(timer);
+            }
+            assertSameRun(minuteByMinute, batched, 123, "with two zeros in the timer");
+
+            // A timer without zeros never produces
+            for (PartMachine machine : new PartMachine[] {minuteByMinute, batched}) {
+                Queue<Integer> timer = new ListQueue<>();
+                timer.enqueue(1);
+                timer.enqueue(2);
+                machine.setTimer(timer);
+            }
+            assertSameRun(minuteByMinute, batched, 50, "with no zero in the timer");
+        }
+    }
+    @Nested
+    @DisplayName("ArrayList Tests")
+    public class TestArrayList {
+        @Test
+        @DisplayName("Testing that a list created with capacity 0 can grow")
+        public void testZeroCapacity() {
+            List<Integer> list = new ArrayList<>(0);
+            list.add(7);
+            for (int i = 0; i < 100; i++) {
+                list.add(i);
+            }
+            assertAll(
+                () -> assertEquals(101, list.size(), "Has wrong size after growing."),
+                () -> assertEquals(7, list.first(), "Lost the first element when growing."),
+                () -> assertEquals(99, list.last(), "Lost the last element when growing.")
+            );
+        }
+        @Test
+        @DisplayName("Testing add and remove in the middle, ensureCapacity and trimToSize")
+        public void testShifts() {
+            ArrayList<Integer> list = new ArrayList<>(1);
+            list.ensureCapacity(50);
+            for (int i = 0; i < 10; i++) {
+                list.add(i);
+            }
+            list.add(0, -1);
+            list.add(5, -5);
+            list.add(list.size(), -10);
+            list.remove(3);
+            list.trimToSize();
+            list.add(11);
+            assertEquals("-1 0 1 3 -5 4 5 6 7 8 9 -10 11 ", contents(list), "Elements were not shifted correctly.");
+        }
+        private String contents(List<Integer> list) {
+            String str = "";
+            for (Integer element : list) {
+                str += element + " ";
+            }
+            return str;
+        }
+    }
+    @Nested
+    @DisplayName("CircularArrayList Tests")
+    public class TestCircularArrayList {
+        private CircularArrayList<Integer> list;
+        private java.util.List<Integer> expected;
+
+        /**
+         * A full list of capacity 8 whose front is at position 5 of the array, so the last 5 elements wrapped around.
+         */
+        @BeforeEach
+        public void setUp() {
+            list = new CircularArrayList<>(8);
+            expected = new java.util.ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                list.add(i);
+            }
+            list.removeFirst(5);
+            for (int i = 8; i < 13; i++) {
+                list.add(i);
+            }
+            for (int i = 5; i < 13; i++) {
+                expected.add(i);
+            }
+        }
+
+        private void assertSameList(String operation) {
+            assertEquals(expected.size(), list.size(), "Has wrong size after " + operation + ".");
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i), list.get(i), "Has the wrong element at " + i + " after " + operation + ".");
+            }
+            int i = 0;
+            for (Integer element : list) {
+                assertEquals(expected.get(i++), element, "The iterator gives the wrong element after " + operation + ".");
+            }
+        }
+
+        @Test
+        @DisplayName("Testing add and remove near both ends and in the middle of a wrapped list")
+        public void testWrapped() {
+            assertSameList("wrapping around the end of the array");
+            // The list is full, this grows it while it is wrapped
+            list.add(1, 100);
+            expected.add(1, 100);
+            assertSameList("growing while wrapped in the front half");
+            setUp();
+            list.add(7, 101);
+            expected.add(7, 101);
+            assertSameList("growing while wrapped in the back half");
+            list.add(101);
+            expected.add(101);
+            list.add(4, 102);
+            expected.add(4, 102);
+            assertSameList("add in the middle");
+            list.remove(1);
+            expected.remove(1);
+            assertSameList("remove near the front");
+            list.remove(expected.size() - 2);
+            expected.remove(expected.size() - 2);
+            assertSameList("remove near the end");
+            list.remove(expected.size() / 2);
+            expected.remove(expected.size() / 2);
+            assertSameList("remove in the middle");
+            list.addFirst(103);
+            expected.add(0, 103);
+            assertEquals(expected.remove(expected.size() - 1), list.removeLast(), "removeLast() returned the wrong element.");
+            assertEquals(expected.remove(0), list.removeFirst(), "removeFirst() returned the wrong element.");
+            assertSameList("addFirst, removeLast and removeFirst");
+        }
+
+        @Test
+        @DisplayName("Testing random operations on a small list against java.util.ArrayList")
+        public void testRandomOperations() {
+            Random random = new Random(5);
+            for (int round = 0; round < 2000; round++) {
+                int index = random.nextInt(expected.size() + 1);
+                int operation = random.nextInt(6);
+                if (operation == 0 || expected.isEmpty()) {
+                    list.add(index, round);
+                    expected.add(index, round);
+                }
+                else if (operation == 1 && index < expected.size()) {
+                    list.remove(index);
+                    expected.remove(index);
+                }
+                else if (operation == 2) {
+                    list.addFirst(round);
+                    expected.add(0, round);
+                }
+                else if (operation == 3) {
+                    int k = random.nextInt(Math.min(expected.size(), 4) + 1);
+                    list.removeFirst(k);
+                    expected.subList(0, k).clear();
+                }
+                else if (operation == 4) {
+                    assertEquals(expected.remove(expected.size() - 1), list.removeLast(), "removeLast() returned the wrong element.");
+                }
+                else {
+                    list.add(round);
+                    expected.add(round);
+                }
+                assertSameList("round " + round);
+            }
+        }
+
+        @Test
+        @DisplayName("Testing removeFirst(k) with k = 0, k = size and k > size")
+        public void testRemoveFirstK() {
+            list.removeFirst(0);
+            assertSameList("removeFirst(0)");
+            assertThrows(IndexOutOfBoundsException.class, () -> list.removeFirst(expected.size() + 1), "Removed more elements than the list has.");
+            assertThrows(IndexOutOfBoundsException.class, () -> list.removeFirst(-1), "Removed a negative amount of elements.");
+            assertSameList("a removeFirst(k) that threw");
+            list.removeFirst(expected.size());
+            expected.clear();
+            assertSameList("removeFirst(size)");
+            assertTrue(list.isEmpty(), "Not empty after removing every element.");
+            for (int i = 0; i < 20; i++) {
+                list.add(i);
+                expected.add(i);
+            }
+            assertSameList("reusing the list after removing every element");
+        }
+    }
+    @Nested
+    @DisplayName("SinglyLinkedList Tests")
+    public class TestSinglyLinkedList {
+        @Test
+        @DisplayName("Testing remove with an index equal to the size")
+        public void testRemoveAtSize() {
+            List<Integer> list = new SinglyLinkedList<>();
+            assertThrows(IndexOutOfBoundsException.class, () -> list.remove(0), "Removed from an empty list.");
+            list.add(1);
+            list.add(2);
+            assertThrows(IndexOutOfBoundsException.class, () -> list.remove(2), "Removed at index size.");
+            assertEquals(2, list.size(), "Failed remove changed the size.");
+        }
+        @Test
+        @DisplayName("Testing that appending after removals keeps the last element right")
+        public void testTail() {
+            List<Integer> list = new SinglyLinkedList<>();
+            for (int i = 0; i < 5; i++) {
+                list.add(i);
+            }
+            list.remove(4);
+            list.add(5);
+            list.add(list.size(), 6);
+            list.removeAll(6);
+            list.add(7);
+            list.remove(0);
+            list.add(0, -1);
+            assertAll(
+                () -> assertEquals(7, list.last(), "last() doesn't return the last element added."),
+                () -> assertEquals(-1, list.first(), "first() doesn't return the element added at 0."),
+                () -> assertEquals(6, list.size(), "Has wrong size."),
+                () -> assertEquals(5, list.get(4), "Lost an element in the middle.")
+            );
+            list.clear();
+            list.add(8);
+            assertAll(
+                () -> assertEquals(8, list.first(), "Didn't reset the head after clear."),
+                () -> assertEquals(8, list.last(), "Didn't reset the tail after clear.")
+            );
+        }
+        @Test
+        @DisplayName("Testing remove through the iterator at the head, middle and tail")
+        public void testIteratorRemove() {
+            List<Integer> list = new SinglyLinkedList<>();
+            for (int i = 0; i < 6; i++) {
+                list.add(i);
+            }
+            Iterator<Integer> iterator = list.iterator();
+            assertThrows(IllegalStateException.class, () -> iterator.remove(), "Removed before calling next().");
+            while (iterator.hasNext()) {
+                if (iterator.next() % 2 == 0) {
+                    iterator.remove();
+                }
+            }
+            assertAll(
+                () -> assertEquals("{ 1-> 3-> 5-> null }", list.toString(), "Didn't unlink the right nodes."),
+                () -> assertEquals(3, list.size(), "Has wrong size after removing through the iterator.")
+            );
+            Iterator<Integer> second = list.iterator();
+            second.next();
+            second.remove();
+            assertThrows(IllegalStateException.class, () -> second.remove(), "Removed the same node twice.");
+            second.next();
+            second.next();
+            second.remove();
+            list.add(7);
+            assertAll(
+                () -> assertEquals("{ 3-> 7-> null }", list.toString(), "Didn't unlink the head and tail."),
+                () -> assertEquals(3, list.first(), "Didn't move the head after removing it."),
+                () -> assertEquals(7, list.last(), "Didn't move the tail after removing it.")
+            );
+        }
+    }
+    @Nested
+    @DisplayName("DoublyLinkedList Tests")
+    public class TestDoublyLinkedList {
+        private DoublyLinkedList<Integer> list;
+
+        @BeforeEach
+        public void setUp() {
+            list = new DoublyLinkedList<>();
+            for (int i = 0; i < 10; i++) {
+                list.add(i);
+            }
+        }
+
+        @Test
+        @DisplayName("Testing get, set, add and remove in both halves against java.util.ArrayList")
+        public void testIndexes() {
+            java.util.List<Integer> expected = new java.util.ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                expected.add(i);
+            }
+            assertEquals(7, list.get(7), "get() walked back from the trailer to the wrong node.");
+            assertEquals(9, list.get(9), "get() of the last index walked to the wrong node.");
+            Random random = new Random(3);
+            for (int round = 0; round < 500; round++) {
+                int index = random.nextInt(expected.size() + 1);
+                switch (random.nextInt(4)) {
+                    case 0:
+                        list.add(index, round);
+                        expected.add(index, round);
+                        break;
+                    case 1:
+                        if (index < expected.size()) {
+                            list.remove(index);
+                            expected.remove(index);
+                        }
+                        break;
+                    case 2:
+                        if (index < expected.size()) {
+                            assertEquals(expected.set(index, -round), list.set(index, -round), "set() returned the wrong old value.");
+                        }
+                        break;
+                    default:
+                        list.add(round);
+                        expected.add(round);
+                }
+                assertEquals(expected.size(), list.size(), "Has wrong size after round " + round + ".");
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i), list.get(i), "Has the wrong element at " + i + " after round " + round + ".");
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Testing ListIterator remove and set after previous()")
+        public void testRemoveAfterPrevious() {
+            ListIterator<Integer> it = list.listIterator(list.size());
+            assertEquals(9, it.previous(), "previous() from the end didn't return the last element.");
+            assertEquals(8, it.previous(), "previous() didn't move back.");
+            it.remove();
+            assertAll(
+                () -> assertEquals(9, list.size(), "Has wrong size after remove."),
+                () -> assertEquals(8, it.nextIndex(), "Moved the cursor when removing after previous()."),
+                () -> assertEquals(7, it.previousIndex(), "Moved the cursor when removing after previous()."),
+                () -> assertEquals(9, list.get(8), "Removed the wrong element.")
+            );
+            assertEquals(9, it.next(), "next() after remove didn't return the element after the removed one.");
+            assertEquals(9, it.previous(), "previous() after next() didn't return the same element.");
+            it.set(90);
+            assertEquals(7, it.previous(), "previous() skipped an element after set().");
+            it.remove();
+            assertEquals("0 1 2 3 4 5 6 90 ", contents(list), "Removed the wrong elements.");
+            assertEquals(6, it.previous(), "previous() after two removes returned the wrong element.");
+        }
+
+        @Test
+        @DisplayName("Testing ListIterator add at the cursor")
+        public void testAddAtCursor() {
+            ListIterator<Integer> it = list.listIterator(2);
+            it.add(20);
+            assertAll(
+                () -> assertEquals(2, it.previousIndex(), "previousIndex() after add is not the added element."),
+                () -> assertEquals(3, it.nextIndex(), "nextIndex() after add didn't move past the added element."),
+                () -> assertEquals(11, list.size(), "Has wrong size after add.")
+            );
+            assertEquals(2, it.next(), "add() changed what next() returns.");
+            assertEquals(2, it.previous(), "previous() didn't go back over the element from next().");
+            assertEquals(20, it.previous(), "previous() didn't return the added element.");
+            it.add(10);
+            assertEquals(10, it.previous(), "previous() after add didn't return the added element.");
+            it.add(5);
+            assertEquals(3, it.nextIndex(), "nextIndex() is wrong after adding twice.");
+            assertEquals("0 1 5 10 20 2 3 4 5 6 7 8 9 ", contents(list), "Added at the wrong positions.");
+            ListIterator<Integer> end = list.listIterator(list.size());
+            end.add(100);
+            assertAll(
+                () -> assertEquals(100, list.last(), "add() at the end didn't append."),
+                () -> assertTrue(!end.hasNext(), "hasNext() after adding at the end."),
+                () -> assertEquals(100, end.previous(), "previous() at the end didn't return the added element.")
+            );
+        }
+
+        @Test
+        @DisplayName("Testing ListIterator remove and set without a call to next() or previous()")
+        public void testIllegalState() {
+            ListIterator<Integer> it = list.listIterator();
+            assertThrows(IllegalStateException.class, () -> it.remove(), "remove() before next() didn't throw.");
+            it.next();
+            it.remove();
+            assertThrows(IllegalStateException.class, () -> it.remove(), "Second remove() didn't throw.");
+            assertThrows(IllegalStateException.class, () -> it.set(1), "set() after remove() didn't throw.");
+            it.next();
+            it.add(3);
+            assertThrows(IllegalStateException.class, () -> it.remove(), "remove() after add() didn't throw.");
+            assertEquals("1 3 2 3 4 5 6 7 8 9 ", contents(list), "The failed calls changed the list.");
+        }
+
+        @Test
+        @DisplayName("Testing the list after clear")
+        public void testClear() {
+            list.clear();
+            assertAll(
+                () -> assertTrue(list.isEmpty(), "Not empty after clear."),
+                () -> assertTrue(!list.iterator().hasNext(), "The iterator still has elements after clear."),
+                () -> assertTrue(!list.listIterator().hasNext(), "The list iterator still has elements after clear.")
+            );
+            list.add(1);
+            list.add(0, 0);
+            list.add(2);
+            ListIterator<Integer> it = list.listIterator(3);
+            assertEquals(2, it.previous(), "The list iterator didn't start at the end.");
+            it.remove();
+            assertAll(
+                () -> assertEquals(2, list.size(), "Has wrong size after reuse."),
+                () -> assertEquals(0, list.first(), "Has wrong first element after reuse."),
+                () -> assertEquals(1, list.last(), "Has wrong last element after reuse."),
+                () -> assertEquals(1, list.get(1), "get() walked back to the wrong node after reuse.")
+            );
+        }
+
+        private String contents(List<Integer> list) {
+            String str = "";
+            for (Integer element : list) {
+                str += element + " ";
+            }
+            return str;
+        }
+    }
+    @Nested
+    @DisplayName("ArrayQueue Tests")
+    public class TestArrayQueue {
+        /**
+         * Dequeues everything left in queue.
+         */
+        private java.util.List<Integer> drain(Queue<Integer> queue) {
+            java.util.List<Integer> values = new java.util.ArrayList<>();
+            while (!queue.isEmpty()) {
+                values.add(queue.dequeue());
+            }
+            return values;
+        }
+
+        @Test
+        @DisplayName("Testing enqueue and dequeue when the values wrap around the end of the array")
+        public void testWraparound() {
+            Queue<Integer> queue = new ArrayQueue<Integer>(4);
+            for (int i = 0; i < 3; i++) {
+                queue.enqueue(i);
+            }
+            assertEquals(0, queue.dequeue(), "Didn't dequeue the front value.");
+            assertEquals(1, queue.dequeue(), "Didn't dequeue the front value.");
+            // The array has 4 positions, these wrap around to the start
+            queue.enqueue(3);
+            queue.enqueue(4);
+            queue.enqueue(5);
+            assertAll(
+                () -> assertEquals(4, queue.size(), "Has wrong size after wrapping around."),
+                () -> assertEquals(2, queue.front(), "Lost the front after wrapping around."),
+                () -> assertEquals("{ 2 3 4 5 }", queue.toString(), "Has wrong values after wrapping around.")
+            );
+            assertEquals(Arrays.asList(2, 3, 4, 5), drain(queue), "Dequeued the wrapped values in the wrong order.");
+        }
+        @Test
+        @DisplayName("Testing that the queue grows while its values wrap around")
+        public void testGrowWhileWrapped() {
+            Queue<Integer> queue = new ArrayQueue<Integer>(4);
+            for (int i = 0; i < 4; i++) {
+                queue.enqueue(i);
+            }
+            queue.dequeue();
+            queue.dequeue();
+            queue.enqueue(4);
+            queue.enqueue(5);
+            // Full and wrapped, the next values make it grow twice
+            for (int i = 6; i < 12; i++) {
+                queue.enqueue(i);
+            }
+            assertAll(
+                () -> assertEquals(10, queue.size(), "Has wrong size after growing."),
+                () -> assertEquals(2, queue.front(), "Lost the front after growing.")
+            );
+            assertEquals(Arrays.asList(2, 3, 4, 5, 6, 7, 8, 9, 10, 11), drain(queue), "Growing mixed up the order of the values.");
+        }
+        @Test
+        @DisplayName("Testing random operations against java.util.ArrayDeque")
+        public void testAgainstArrayDeque() {
+            Queue<Integer> queue = new ArrayQueue<Integer>(1);
+            ArrayDeque<Integer> expected = new ArrayDeque<>();
+            Random random = new Random(6);
+            for (int round = 0; round < 2000; round++) {
+                if (expected.isEmpty() || random.nextInt(5) < 3) {
+                    queue.enqueue(round);
+                    expected.addLast(round);
+                }
+                else {
+                    assertEquals(expected.removeFirst(), queue.dequeue(), "Dequeued the wrong value in round " + round + ".");
+                }
+                assertEquals(expected.size(), queue.size(), "Has wrong size in round " + round + ".");
+                if (!expected.isEmpty()) {
+                    assertEquals(expected.peekFirst(), queue.front(), "Has the wrong front in round " + round + ".");
+                }
+            }
+        }
+        @Test
+        @DisplayName("Testing clear and null values")
+        public void testClear() {
+            Queue<Integer> queue = new ArrayQueue<Integer>(4);
+            queue.enqueue(null);
+            queue.enqueue(1);
+            queue.enqueue(null);
+            assertAll(
+                () -> assertEquals(3, queue.size(), "Didn't keep the null values."),
+                () -> assertEquals(null, queue.front(), "Null values should be kept like any other value.")
+            );
+            assertEquals(Arrays.asList(null, 1, null), drain(queue), "Didn't dequeue the null values in order.");
+            // Wrapped around and grown before clearing
+            for (int i = 0; i < 7; i++) {
+                queue.enqueue(i);
+            }
+            queue.clear();
+            assertAll(
+                () -> assertTrue(queue.isEmpty(), "Isn't empty after clear."),
+                () -> assertEquals(0, queue.size(), "Has wrong size after clear."),
+                () -> assertEquals("{ }", queue.toString(), "Still shows values after clear.")
+            );
+            for (int i = 0; i < 10; i++) {
+                queue.enqueue(i);
+            }
+            assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), drain(queue), "Didn't work as a new queue after clear.");
+        }
+        @Test
+        @DisplayName("Testing dequeue and front on an empty queue")
+        public void testEmpty() {
+            Queue<Integer> queue = new ArrayQueue<Integer>();
+            assertThrows(NoSuchElementException.class, () -> queue.dequeue(), "Dequeued from a new queue.");
+            assertThrows(NoSuchElementException.class, () -> queue.front(), "Returned a front for a new queue.");
+            queue.enqueue(1);
+            queue.dequeue();
+            assertAll(
+                () -> assertThrows(NoSuchElementException.class, () -> queue.dequeue(), "Dequeued from an emptied queue."),
+                () -> assertThrows(NoSuchElementException.class, () -> queue.front(), "Returned a front for an emptied queue."),
+                () -> assertThrows(IllegalArgumentException.class, () -> new ArrayQueue<Integer>(0), "Made a queue without capacity.")
+            );
+        }
+    }
+    @Nested
+    @DisplayName("Stack Tests")
+    public class TestStacks {
+        /**
+         * An ArrayStack that has to grow a few times and a LinkedStack, every test runs on both.
+         */
+        @SuppressWarnings("unchecked")
+        private Stack<Integer>[] stacks() {
+            return new Stack[] {new ArrayStack<Integer>(2), new LinkedStack<Integer>()};
+        }
+
+        @Test
+        @DisplayName("Testing push, top and pop while the stack grows")
+        public void testPushPop() {
+            for (Stack<Integer> stack : stacks()) {
+                String name = stack.getClass().getSimpleName();
+                for (int i = 0; i < 100; i++) {
+                    stack.push(i);
+                    assertEquals(i, stack.top(), name + " doesn't have the last value pushed on top.");
+                }
+                assertEquals(100, stack.size(), name + " has wrong size after pushing.");
+                for (int i = 99; i >= 50; i--) {
+                    assertEquals(i, stack.pop(), name + " didn't pop the values in reverse order.");
+                }
+                stack.push(-1);
+                assertAll(
+                    () -> assertEquals(51, stack.size(), name + " has wrong size after popping."),
+                    () -> assertEquals(-1, stack.pop(), name + " didn't pop the value pushed after popping."),
+                    () -> assertEquals(49, stack.top(), name + " lost the values below the top.")
+                );
+            }
+        }
+        @Test
+        @DisplayName("Testing that drainTo gives the values from top to bottom and empties the stack")
+        public void testDrainTo() {
+            for (Stack<Integer> stack : stacks()) {
+                String name = stack.getClass().getSimpleName();
+                for (int i = 0; i < 20; i++) {
+                    stack.push(i);
+                }
+                stack.pop();
+                java.util.List<Integer> drained = new java.util.ArrayList<>();
+                stack.drainTo(drained::add);
+                java.util.List<Integer> expected = new java.util.ArrayList<>();
+                for (int i = 18; i >= 0; i--) {
+                    expected.add(i);
+                }
+                assertEquals(expected, drained, name + " didn't drain from top to bottom.");
+                assertAll(
+                    () -> assertTrue(stack.isEmpty(), name + " isn't empty after drainTo."),
+                    () -> assertEquals(0, stack.size(), name + " has wrong size after drainTo.")
+                );
+                // The stack is still usable afterwards
+                stack.push(7);
+                stack.push(8);
+                drained.clear();
+                stack.drainTo(drained::add);
+                assertEquals(Arrays.asList(8, 7), drained, name + " didn't work after being drained.");
+                stack.drainTo(drained::add);
+                assertEquals(2, drained.size(), name + " gave values when draining an empty stack.");
+            }
+        }
+        @Test
+        @DisplayName("Testing clear, empty stacks and null values")
+        public void testEmpty() {
+            for (Stack<Integer> stack : stacks()) {
+                String name = stack.getClass().getSimpleName();
+                assertThrows(NoSuchElementException.class, () -> stack.pop(), name + " popped from a new stack.");
+                assertThrows(NoSuchElementException.class, () -> stack.top(), name + " returned a top for a new stack.");
+                assertThrows(IllegalArgumentException.class, () -> stack.push(null), name + " accepted a null value.");
+                for (int i = 0; i < 10; i++) {
+                    stack.push(i);
+                }
+                stack.clear();
+                assertAll(
+                    () -> assertTrue(stack.isEmpty(), name + " isn't empty after clear."),
+                    () -> assertThrows(NoSuchElementException.class, () -> stack.pop(), name + " popped after clear."),
+                    () -> assertThrows(NoSuchElementException.class, () -> stack.top(), name + " returned a top after clear.")
+                );
+                stack.push(3);
+                assertEquals(3, stack.pop(), name + " didn't work after clear.");
+            }
+        }
+    }
+    @Nested
+    @DisplayName("ConveyorBelt Tests")
+    public class TestConveyorBelt {
+        /**
+        * Slots of a queue from front to back, going around it once leaves it as it was.
+        */
+        private String contents(Queue<Integer> queue) {
+            String str = "";
+            for (int i = 0; i < queue.size(); i++) {
+                Integer slot = queue.dequeue();
+                str += slot + " ";
+                queue.enqueue(slot);
+            }
+            return str;
+        }
+        @Test
+        @DisplayName("Testing that the belt works as a queue when it has to grow")
+        public void testQueue() {
+            Queue<Integer> belt = new ConveyorBelt<>(3);
+            belt.enqueue(1);
+            belt.enqueue(2);
+            assertAll(
+                () -> assertEquals(5, belt.size(), "Didn't add slots after the 3 empty ones."),
+                () -> assertEquals("null null null 1 2 ", contents(belt), "Slots are in the wrong order.")
+            );
+            for (int i = 0; i < 3; i++) {
+                assertEquals(null, belt.dequeue(), "Empty slots should come out first.");
+            }
+            assertAll(
+                () -> assertEquals(1, belt.front(), "Didn't keep the order of the queue."),
+                () -> assertEquals(2, belt.size(), "Has wrong size after dequeue.")
+            );
+            belt.clear();
+            assertTrue(belt.isEmpty(), "Clear should remove every slot.");
+        }
+        @Test
+        @DisplayName("Testing advance and skip against enqueue and dequeue on a regular queue")
+        public void testAdvanceAndSkip() {
+            ConveyorBelt<Integer> belt = new ConveyorBelt<>(4);
+            Queue<Integer> expected = new ListQueue<>();
+            for (int i = 0; i < 4; i++) {
+                expected.enqueue(null);
+            }
+            Random random = new Random(7);
+            for (int step = 0; step < 500; step++) {
+                int action = random.nextInt(6);
+                if (action <= 1) {
+                    Integer value = random.nextBoolean() ? null : step;
+                    expected.enqueue(value);
+                    assertEquals(expected.dequeue(), belt.advance(value), "advance returned the wrong slot at step " + step + ".");
+                }
+                else if (action == 2) {
+                    int n = random.nextInt(8);
+                    for (int i = 0; i < n; i++) {
+                        expected.enqueue(null);
+                        expected.dequeue();
+                    }
+                    belt.skip(n);
+                }
+                else if (action == 3) {
+                    // Changes the number of slots, so advance and skip also run on belts that are not full
+                    Integer value = random.nextBoolean() ? null : step;
+                    expected.enqueue(value);
+                    belt.enqueue(value);
+                }
+                else if (action == 4 && !expected.isEmpty()) {
+                    assertEquals(expected.dequeue(), belt.dequeue(), "dequeue returned the wrong slot at step " + step + ".");
+                }
+                else if (action == 5) {
+                    int occupied = 0;
+                    for (int i = 0; i < expected.size(); i++) {
+                        Integer slot = expected.dequeue();
+                        occupied += slot == null ? 0 : 1;
+                        expected.enqueue(slot);
+                    }
+                    assertEquals(occupied, belt.occupied(), "Has the wrong amount of occupied slots at step " + step + ".");
+                }
+                assertEquals(contents(expected), contents(belt), "Slots don't match at step " + step + ".");
+            }
+        }
+        @Test
+        @DisplayName("Testing drainTo and reset")
+        public void testDrain() {
+            ConveyorBelt<Integer> belt = new ConveyorBelt<>(5);
+            for (int i = 1; i <= 7; i++) {
+                belt.advance(i % 3 == 0 ? null : i);
+            }
+            Queue<Integer> drained = new ListQueue<>();
+            belt.drainTo(drained::enqueue);
+            assertAll(
+                () -> assertEquals("4 5 7 ", contents(drained), "Didn't drain the parts from front to back."),
+                () -> assertTrue(belt.isClear(), "Drained belt should have no parts."),
+                () -> assertEquals(5, belt.size(), "Draining shouldn't remove slots.")
+            );
+            belt.advance(1);
+            belt.reset();
+            assertAll(
+                () -> assertEquals(0, belt.occupied(), "Reset didn't empty the slots."),
+                () -> assertEquals(5, belt.size(), "Reset shouldn't remove slots.")
+            );
+        }
+        @Test
+        @DisplayName("Testing a machine with a belt set from another kind of queue")
+        public void testMachineBelt() {
+            part = new CarPart(9, "Transmission", 15.0, false);
+            machine1 = new PartMachine(1, part, 2, 1.2, 5, 42L);
+            PartMachine same = new PartMachine(1, part, 2, 1.2, 5, 42L);
+            Queue<CarPart> belt = new ListQueue<>();
+            for (int i = 0; i < 4; i++) {
+                belt.enqueue(null);
+            }
+            machine1.setConveyorBelt(belt);
+            same.setConveyorBelt(new ListQueue<>());
+            for (int i = 0; i < 4; i++) {
+                same.getConveyorBelt().enqueue(null);
+            }
+            assertEquals(4, machine1.getConveyorBelt().size(), "Didn't copy the slots of the queue.");
+            Queue<CarPart> emitted = new ListQueue<>();
+            machine1.produceBatch(25, emitted::enqueue);
+            for (int i = 0; i < 25; i++) {
+                CarPart produced = same.produceCarPart();
+                if (produced != null) {
+                    assertEquals(produced.getWeight(), emitted.dequeue().getWeight(), "produceBatch emitted a different part.");
+                }
+            }
+            assertAll(
+                () -> assertTrue(emitted.isEmpty(), "produceBatch emitted too many parts."),
+                () -> assertEquals(4, machine1.getConveyorBelt().size(), "Belt changed its length."),
+                () -> assertEquals(same.getTotalPartsProduced(), machine1.getTotalPartsProduced(), "Produced a different amount of parts.")
+            );
+        }
+    }
+    @Nested
+    @DisplayName("HashTableSC Tests")
+    public class TestHashTableSC {
+        @Test
+        @DisplayName("Testing table grows past its load factor")
+        public void testRehash() {
+            HashTableSC<Integer, Integer> table = new HashTableSC<>(2, new BasicHashFunction());
+            for (int i = 0; i < 1000; i++) {
+                table.put(i, i * 2);
+            }
+            assertAll(
+                () -> assertEquals(1000, table.size(), "Didn't keep every entry after rehashing."),
+                () -> assertTrue(table.size() <= table.getLoadFactor() * table.capacity(), "Didn't grow the bucket array."),
+                () -> assertEquals(0, table.get(0), "Lost value after rehashing."),
+                () -> assertEquals(1998, table.get(999), "Lost value after rehashing.")
+            );
+        }
+        @Test
+        @DisplayName("Testing shrinkable table after remove and clear")
+        public void testShrink() {
+            HashTableSC<Integer, Integer> table = new HashTableSC<>(4, new BasicHashFunction(), 0.75, true);
+            for (int i = -100; i < 100; i++) {
+                table.put(i, i);
+            }
+            int grownCapacity = table.capacity();
+            for (int i = -100; i < 90; i++) {
+                table.remove(i);
+            }
+            assertAll(
+                () -> assertEquals(10, table.size(), "Has wrong size after removing."),
+                () -> assertTrue(table.capacity() < grownCapacity, "Didn't shrink the bucket array."),
+                () -> assertEquals(95, table.get(95), "Lost value after shrinking."),
+                () -> assertEquals(null, table.get(-5), "Found removed key.")
+            );
+            table.clear();
+            assertEquals(4, table.capacity(), "Didn't go back to initial capacity on clear.");
+        }
+        @Test
+        @DisplayName("Testing merge, compute and putIfAbsent")
+        public void testUpserts() {
+            Map<Integer, Integer> table = new HashTableSC<>(2, new BasicHashFunction());
+            for (int i = 0; i < 30; i++) {
+                table.merge(i % 3, 1, Integer::sum);
+            }
+            assertAll(
+                () -> assertEquals(3, table.size(), "Merge added duplicate keys."),
+                () -> assertEquals(10, table.get(2), "Merge didn't combine values."),
+                () -> assertEquals(10, table.putIfAbsent(2, 99), "putIfAbsent replaced an existing value."),
+                () -> assertEquals(null, table.putIfAbsent(7, 99), "putIfAbsent didn't add missing key."),
+                () -> assertEquals(11, table.compute(0, (k, v) -> v + 1), "Compute didn't update value."),
+                () -> assertEquals(null, table.compute(1, (k, v) -> null), "Compute didn't remove key."),
+                () -> assertEquals(-1, table.getOrDefault(1, -1), "Didn't return default for removed key."),
+                () -> assertEquals(3, table.size(), "Has wrong size after upserts.")
+            );
+        }
+        @Test
+        @DisplayName("Testing remove, compute and merge inside one long chain")
+        public void testChainRemoval() {
+            // Every key lands in the same bucket and the table never grows, so it is a single chain
+            Map<Integer, Integer> table = new HashTableSC<>(1, key -> 0, 100, false);
+            for (int i = 0; i < 10; i++) {
+                table.put(i, i);
+            }
+            assertAll(
+                () -> assertEquals(9, table.remove(9), "Didn't remove the front of the chain."),
+                () -> assertEquals(0, table.remove(0), "Didn't remove the back of the chain."),
+                () -> assertEquals(null, table.remove(0), "Removed a missing key."),
+                () -> assertEquals(null, table.compute(5, (k, v) -> null), "Compute didn't remove a middle key."),
+                () -> assertEquals(null, table.merge(7, 1, (a, b) -> null), "Merge didn't remove a middle key."),
+                () -> assertEquals(null, table.put(10, 10), "Found a key that was never added."),
+                () -> assertEquals(7, table.size(), "Has wrong size after removing from the chain.")
+            );
+            java.util.List<Integer> keys = new java.util.ArrayList<>();
+            for (Integer key : table.keys()) {
+                keys.add(key);
+            }
+            keys.sort(null);
+            assertEquals(Arrays.asList(1, 2, 3, 4, 6, 8, 10), keys, "Chain lost or kept the wrong keys.");
+        }
+        @Test
+        @DisplayName("Testing keys, values, entries and forEach of every Map against getKeys and getValues")
+        public void testViews() {
+            java.util.List<Map<Integer, Integer>> maps = Arrays.asList(new HashTableSC<>(2, new BasicHashFunction()),
+                new HashTableLP<>(2, new BasicHashFunction()), new IntIntMap(2));
+            for (Map<Integer, Integer> map : maps) {
+                String name = map.getClass().getSimpleName();
+                for (int i = -20; i < 40; i += 3) {
+                    map.put(i, i * 7);
+                }
+                java.util.List<Integer> keys = new java.util.ArrayList<>();
+                java.util.List<Integer> values = new java.util.ArrayList<>();
+                java.util.List<Integer> entryKeys = new java.util.ArrayList<>();
+                java.util.List<Integer> forEachKeys = new java.util.ArrayList<>();
+                map.keys().forEach(keys::add);
+                map.values().forEach(values::add);
+                for (Entry<Integer, Integer> entry : map.entries()) {
+                    assertEquals(entry.getKey() * 7, entry.getValue(), name + ": entry has the wrong value.");
+                    entryKeys.add(entry.getKey());
+                }
+                map.forEach((key, value) -> {
+                    assertEquals(key * 7, value, name + ": forEach gave the wrong value.");
+                    forEachKeys.add(key);
+                });
+                java.util.List<Integer> expectedKeys = new java.util.ArrayList<>();
+                java.util.List<Integer> expectedValues = new java.util.ArrayList<>();
+                map.getKeys().forEach(expectedKeys::add);
+                map.getValues().forEach(expectedValues::add);
+                expectedKeys.sort(null);
+                expectedValues.sort(null);
+                keys.sort(null);
+                values.sort(null);
+                entryKeys.sort(null);
+                forEachKeys.sort(null);
+                assertAll(
+                    () -> assertEquals(expectedKeys, keys, name + ": keys() doesn't match getKeys()."),
+                    () -> assertEquals(expectedValues, values, name + ": values() doesn't match getValues()."),
+                    () -> assertEquals(expectedKeys, entryKeys, name + ": entries() doesn't match getKeys()."),
+                    () -> assertEquals(expectedKeys, forEachKeys, name + ": forEach doesn't match getKeys().")
+                );
+                // The views are live, they see changes made after they were created
+                Iterable<Integer> liveKeys = map.keys();
+                map.remove(-20);
+                map.put(100, 700);
+                java.util.List<Integer> after = new java.util.ArrayList<>();
+                liveKeys.forEach(after::add);
+                assertAll(
+                    () -> assertEquals(keys.size(), after.size(), name + ": view has the wrong size after changes."),
+                    () -> assertTrue(after.contains(100) && !after.contains(-20), name + ": view didn't see the changes.")
+                );
+                map.clear();
+                assertTrue(!map.keys().iterator().hasNext(), name + ": keys() of an empty map isn't empty.");
+            }
+        }
+    }
+    @Nested
+    @DisplayName("HashTableLP Tests")
+    public class TestHashTableLP {
+        @Test
+        @DisplayName("Testing put, get and remove with linear probing")
+        public void testProbing() {
+            Map<Integer, Integer> table = new HashTableLP<>(2, new BasicHashFunction());
+            for (int i = -500; i < 500; i++) {
+                table.put(i, i * 3);
+            }
+            for (int i = -500; i < 500; i += 2) {
+                table.remove(i);
+            }
+            assertAll(
+                () -> assertEquals(500, table.size(), "Has wrong size after removing."),
+                () -> assertEquals(null, table.get(-500), "Found removed key."),
+                () -> assertEquals(-1497, table.get(-499), "Lost key after removing its neighbors."),
+                () -> assertEquals(1497, table.get(499), "Lost key after removing its neighbors."),
+                () -> assertEquals(500, table.getKeys().size(), "Returned wrong amount of keys.")
+            );
+            assertEquals(1497, table.put(499, 7), "Didn't return old value when replacing.");
+            assertEquals(500, table.size(), "Replacing a value changed the size.");
+        }
+        @Test
+        @DisplayName("Testing remove in a cluster that wraps around the end of the table")
+        public void testRemoveWrappedCluster() {
+            // Home slots of the keys of each cluster, in the order they are inserted. Every cluster wraps from slot 15 to slot 0,
+            // some keys have to move back over the end of the table and some (like the one with home 0 after a 14) must stay
+            int[][] clusters = { {15, 15, 0, 15}, {15, 15, 0, 15, 1, 4}, {14, 14, 0, 14} };
+            for (int[] homes : clusters) {
+                int[] keys = keysWithHomes(16, homes);
+                for (int removed : keys) {
+                    HashTableLP<Integer, Integer> table = new HashTableLP<>(16, new BasicHashFunction());
+                    for (int key : keys) {
+                        table.put(key, -key);
+                    }
+                    assertEquals(16, table.capacity(), "Table grew, the keys are not in the expected slots.");
+                    assertEquals(-removed, table.remove(removed), "Didn't return the removed value.");
+                    assertEquals(keys.length - 1, table.size(), "Has wrong size after removing.");
+                    assertEquals(null, table.get(removed), "Found removed key.");
+                    for (int key : keys) {
+                        if (key != removed) {
+                            assertEquals(-key, table.get(key), "Lost key " + key + " after removing " + removed + ".");
+                        }
+                    }
+                }
+            }
+        }
+    }
+    @Nested
+    @DisplayName("IntIntMap Tests")
+    public class TestIntIntMap {
+        @Test
+        @DisplayName("Testing counters with addTo and increment")
+        public void testCounters() {
+            IntIntMap counts = new IntIntMap(1);
+            for (int i = 0; i < 100; i++) {
+                counts.increment(i % 10);
+            }
+            counts.addTo(0, -5);
+            counts.addTo(-3, 4);
+            assertAll(
+                () -> assertEquals(11, counts.size(), "Has wrong amount of keys."),
+                () -> assertEquals(5, counts.getOrDefault(0, -1), "Didn't add negative delta."),
+                () -> assertEquals(10, counts.getOrDefault(9, -1), "Didn't count increments."),
+                () -> assertEquals(4, counts.getOrDefault(-3, -1), "Didn't start missing key at 0."),
+                () -> assertEquals(-1, counts.getOrDefault(42, -1), "Didn't return default for missing key."),
+                () -> assertEquals(10, counts.get(Integer.valueOf(9)), "Boxed get doesn't match."),
+                () -> assertEquals(null, counts.get(Integer.valueOf(42)), "Boxed get should return null for missing key.")
+            );
+        }
+        @Test
+        @DisplayName("Testing that the int and Map versions of get and put keep their own results for missing keys")
+        public void testIntAndBoxedAccessors() {
+            IntIntMap counts = new IntIntMap();
+            Map<Integer, Integer> map = counts;
+            assertAll(
+                () -> assertEquals(0, counts.putInt(1, 4), "putInt should return 0 for a new key."),
+                () -> assertEquals(null, map.put(2, 6), "put should return null for a new key."),
+                () -> assertEquals(4, counts.putInt(1, 5), "putInt didn't return old value."),
+                () -> assertEquals(6, map.put(2, 7), "put didn't return old value."),
+                () -> assertEquals(5, counts.getInt(1), "getInt doesn't match putInt."),
+                () -> assertEquals(7, counts.getInt(2), "getInt doesn't match put."),
+                () -> assertEquals(0, counts.getInt(3), "getInt should return 0 for a missing key."),
+                () -> assertEquals(null, counts.get(3), "get should return null for a missing key."),
+                () -> assertEquals(null, map.get(3), "get through Map should return null for a missing key."),
+                () -> assertEquals(2, counts.size(), "Has wrong amount of keys.")
+            );
+        }
+        @Test
+        @DisplayName("Testing removeKey in a cluster that wraps around the end of the table")
+        public void testRemoveWrappedCluster() {
+            // Same clusters as the HashTableLP test, a map made with 16 slots keeps them until it has more than 8 keys
+            int[][] clusters = { {15, 15, 0, 15}, {15, 15, 0, 15, 1, 4}, {14, 14, 0, 14} };
+            for (int[] homes : clusters) {
+                int[] keys = keysWithHomes(16, homes);
+                for (int removed : keys) {
+                    IntIntMap map = new IntIntMap(16);
+                    for (int key : keys) {
+                        map.addTo(key, -key);
+                    }
+                    assertTrue(map.removeKey(removed), "Didn't find the key to remove.");
+                    assertTrue(!map.removeKey(removed), "Removed the same key twice.");
+                    assertEquals(keys.length - 1, map.size(), "Has wrong size after removing.");
+                    for (int key : keys) {
+                        if (key != removed) {
+                            assertEquals(-key, map.getOrDefault(key, 0), "Lost key " + key + " after removing " + removed + ".");
+                        }
+                    }
+                }
+            }
+        }
     }
     @Nested
     @DisplayName("CarFactory Tests")
@@ -366,6 +1927,546 @@ public class StudentTester {
             );    
         }
     }
-    
+    @Nested
+    @DisplayName("OrderFulfillment Tests")
+    public class TestOrderFulfillment {
+        private Map<Integer, List<CarPart>> inventory;
+        private OrderFulfillment fulfillment;
+        private List<Order> orders;
+
+        @BeforeEach
+        public void setUp() {
+            inventory = new HashTableSC<Integer, List<CarPart>>(2, new BasicHashFunction());
+            inventory.put(1, new ArrayList<CarPart>());
+            inventory.put(2, new ArrayList<CarPart>());
+            orders = new ArrayList<Order>();
+            fulfillment = new OrderFulfillment(orders, inventory);
+        }
+
+        private Order addOrder(int id, int... parts) {
+            Map<Integer, Integer> reqParts = new HashTableSC<>(1, new BasicHashFunction());
+            for (int i = 0; i < parts.length; i += 2) {
+                reqParts.put(parts[i], parts[i + 1]);
+            }
+            Order order = new Order(id, "Customer " + id, reqParts, false);
+            orders.add(order);
+            fulfillment.addOrder(order);
+            return order;
+        }
+
+        private void addStock(int partId, int quantity) {
+            for (int i = 0; i < quantity; i++) {
+                inventory.get(partId).add(new CarPart(partId, "Part " + partId, 10, false));
+            }
+            fulfillment.stockAdded(partId);
+        }
+
+        @Test
+        @DisplayName("Testing many small orders fulfilled while a bigger order waits for another part")
+        public void testFulfilledBehindPendingOrder() {
+            Order big = addOrder(1, 1, 5, 2, 1);
+            addStock(1, 30);
+            fulfillment.update();
+            // The small orders are fulfilled while the big one stays ready for part 1, in front of their requests
+            for (int i = 0; i < 26; i++) {
+                Order small = addOrder(10 + i, 1, 1);
+                fulfillment.update();
+                assertTrue(small.isFulfilled(), "There should be enough parts to fulfil order " + small.getId() + ".");
+            }
+            // Only 4 of part 1 are left, so part 2 is not enough for the big order
+            addStock(2, 1);
+            fulfillment.update();
+            assertTrue(!big.isFulfilled(), "Fulfilled an order whose part 1 was taken by other orders.");
+            addStock(1, 1);
+            fulfillment.update();
+            assertAll(
+                () -> assertTrue(big.isFulfilled(), "Didn't fulfil the order once both parts were in stock."),
+                () -> assertEquals(0, inventory.get(1).size(), "Has wrong inventory amount of part 1."),
+                () -> assertEquals(0, inventory.get(2).size(), "Has wrong inventory amount of part 2.")
+            );
+        }
+        @Test
+        @DisplayName("Testing orders that take the stock another order was ready to use")
+        public void testStockTakenByEarlierOrder() {
+            Order first = addOrder(1, 1, 3, 2, 1);
+            Order second = addOrder(2, 1, 2);
+            Order third = addOrder(3, 1, 1, 2, 1);
+
+            // The first order is still waiting for part 2, so the second one takes 2 of the 3 parts
+            addStock(1, 3);
+            fulfillment.update();
+            assertAll(
+                () -> assertTrue(!first.isFulfilled(), "Fulfilled an order without its part 2."),
+                () -> assertTrue(second.isFulfilled(), "There should be enough parts to fulfil this order"),
+                () -> assertTrue(!third.isFulfilled(), "Fulfilled an order without its part 2."),
+                () -> assertEquals(1, inventory.get(1).size(), "Has wrong inventory amount after fulfilling orders.")
+            );
+
+            // Part 2 arrives for the first and third orders, but the first one needs 3 of part 1 and there is only 1 left
+            addStock(2, 1);
+            fulfillment.update();
+            assertAll(
+                () -> assertTrue(!first.isFulfilled(), "Fulfilled an order with the parts the second order took."),
+                () -> assertTrue(third.isFulfilled(), "There should be enough parts to fulfil this order"),
+                () -> assertEquals(0, inventory.get(1).size(), "Has wrong inventory amount after fulfilling orders."),
+                () -> assertEquals(0, inventory.get(2).size(), "Has wrong inventory amount after fulfilling orders.")
+            );
+
+            // Two new orders that are both covered by the same stock, the one added first goes first
+            Order fourth = addOrder(4, 1, 2);
+            Order fifth = addOrder(5, 1, 2);
+            addStock(1, 3);
+            fulfillment.update();
+            assertAll(
+                () -> assertTrue(!first.isFulfilled(), "Fulfilled an order without its part 2."),
+                () -> assertTrue(fourth.isFulfilled(), "There should be enough parts to fulfil this order"),
+                () -> assertTrue(!fifth.isFulfilled(), "Fulfilled an order with the parts an earlier order took."),
+                () -> assertEquals(1, inventory.get(1).size(), "Has wrong inventory amount after fulfilling orders.")
+            );
+
+            addStock(1, 2);
+            addStock(2, 1);
+            fulfillment.update();
+            assertAll(
+                () -> assertTrue(first.isFulfilled(), "There should be enough parts to fulfil this order"),
+                () -> assertTrue(!fifth.isFulfilled(), "The first order should take the parts before the fifth one."),
+                () -> assertEquals(0, inventory.get(1).size(), "Has wrong inventory amount after fulfilling orders.")
+            );
+        }
+
+        @Test
+        @DisplayName("Testing random orders and stock against a greedy pass after every update")
+        public void testAgainstGreedyPass() {
+            Random random = new Random(7);
+            Map<Integer, List<CarPart>> expectedInventory = new HashTableSC<Integer, List<CarPart>>(2, new BasicHashFunction());
+            expectedInventory.put(1, new ArrayList<CarPart>());
+            expectedInventory.put(2, new ArrayList<CarPart>());
+            List<Order> expectedOrders = new ArrayList<Order>();
+            for (int round = 0; round < 200; round++) {
+                for (int i = random.nextInt(3); i > 0; i--) {
+                    // Part 3 is not made by the factory, orders that ask for it are never fulfilled
+                    int[] parts = random.nextInt(10) == 0 ? new int[] {3, 1}
+                        : random.nextBoolean() ? new int[] {1, 1 + random.nextInt(6)}
+                        : new int[] {1, 1 + random.nextInt(6), 2, 1 + random.nextInt(4)};
+                    addOrder(orders.size() + 1, parts);
+                    Map<Integer, Integer> reqParts = new HashTableSC<>(1, new BasicHashFunction());
+                    for (int j = 0; j < parts.length; j += 2) {
+                        reqParts.put(parts[j], parts[j + 1]);
+                    }
+                    expectedOrders.add(new Order(orders.size(), "Customer", reqParts, false));
+                }
+                for (int partId = 1; partId <= 2; partId++) {
+                    int quantity = random.nextInt(4);
+                    addStock(partId, quantity);
+                    for (int i = 0; i < quantity; i++) {
+                        expectedInventory.get(partId).add(new CarPart(partId, "Part " + partId, 10, false));
+                    }
+                }
+                fulfillment.update();
+                greedyPass(expectedOrders, expectedInventory);
+                for (int i = 0; i < orders.size(); i++) {
+                    assertEquals(expectedOrders.get(i).isFulfilled(), orders.get(i).isFulfilled(),
+                        "Different result for order " + (i + 1) + " after round " + round + ".");
+                }
+                for (int partId = 1; partId <= 2; partId++) {
+                    assertEquals(expectedInventory.get(partId).size(), inventory.get(partId).size(),
+                        "Has wrong inventory amount of part " + partId + " after round " + round + ".");
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Testing orders that arrive from an OrderStream over several days against a greedy pass every day")
+        public void testOrderStream() throws IOException {
+            int ordersPerDay = 10;
+            int minutes = 40;
+            List<Order> allOrders = readOrders("input/orders.csv");
+            for (int days : new int[] {1, 4, 13}) {
+                // The same days one at a time, with a greedy pass over the orders that arrived so far at the end of every day
+                CarPartFactory expected = new CarPartFactory(null, "input/parts.csv", 3L);
+                List<Order> arrived = new ArrayList<Order>();
+                for (int day = 1; day <= days; day++) {
+                    for (int i = arrived.size(); i < Math.min(allOrders.size(), day * ordersPerDay); i++) {
+                        Order order = allOrders.get(i);
+                        arrived.add(new Order(order.getId(), order.getCustomerName(), order.getRequestedParts(), false));
+                    }
+                    expected.runFactory(1, minutes);
+                    greedyPass(arrived, expected.getInventory());
+                }
+
+                factory = new CarPartFactory(null, "input/parts.csv", 3L);
+                try (OrderStream stream = new OrderStream("input/orders.csv", ordersPerDay)) {
+                    factory.runFactory(days, minutes, stream);
+                    assertEquals(allOrders.size() > days * ordersPerDay ? days + 1 : -1, stream.nextArrivalDay(),
+                        "The stream read orders of a day that was not run.");
+                }
+                // Only the orders that are still pending are kept, the fulfilled ones are counted
+                List<Integer> pendingIds = new ArrayList<Integer>();
+                int fulfilled = 0;
+                for (int i = 0; i < arrived.size(); i++) {
+                    if (arrived.get(i).isFulfilled()) {
+                        fulfilled++;
+                    }
+                    else {
+                        pendingIds.add(arrived.get(i).getId());
+                    }
+                }
+                assertEquals(fulfilled, factory.getReleasedOrders(), "Fulfilled a different number of orders in " + days + " days.");
+                assertEquals(pendingIds.size(), factory.getOrders().size(), "Kept a different number of pending orders after " + days + " days.");
+                for (int i = 0; i < pendingIds.size(); i++) {
+                    assertEquals(pendingIds.get(i), factory.getOrders().get(i).getId(), "Kept different pending orders after " + days + " days.");
+                    assertTrue(!factory.getOrders().get(i).isFulfilled(), "Kept a fulfilled order in the orders list.");
+                }
+                for (Integer partId : expected.getPartCatalog().keys()) {
+                    assertEquals(expected.getInventory().get(partId).size(), factory.getInventory().get(partId).size(),
+                        "Has wrong inventory amount of part " + partId + " after " + days + " days.");
+                }
+                if (days > 1) {
+                    assertTrue(fulfilled > 0 && fulfilled < arrived.size(), "The test should have orders that are fulfilled and orders that are not.");
+                }
+            }
+        }
+    }
+    @Nested
+    @DisplayName("Run Mode Tests")
+    public class TestRunModes {
+        @Test
+        @DisplayName("Testing that runFactory matches a minute by minute run")
+        public void testBatches() throws IOException {
+            CarPartFactory expected = seededFactory(11L);
+            runMinuteByMinute(expected, 4, 317);
+            factory = seededFactory(11L);
+            factory.runFactory(4, 317);
+            assertSameFactory(expected, factory, "runFactory");
+        }
+        @Test
+        @DisplayName("Testing that runFactoryEventDriven matches runFactory")
+        public void testEventDriven() throws IOException {
+            for (long seed = 1; seed <= 3; seed++) {
+                CarPartFactory expected = seededFactory(seed);
+                expected.runFactory(3, 250 + (int) seed);
+                factory = seededFactory(seed);
+                factory.runFactoryEventDriven(3, 250 + (int) seed);
+                assertSameFactory(expected, factory, "runFactoryEventDriven with seed " + seed);
+            }
+        }
+        @Test
+        @DisplayName("Testing that runFactoryEventDriven matches runFactory with timers set by setTimer")
+        public void testEventDrivenCustomTimers() throws IOException {
+            // A cycle longer than the period, one with two zeros and one with three zeros in a row
+            int[][] timers = {{4, 3, 2, 1, 0}, {2, 0, 1, 0, 3}, {0, 0, 0, 2, 1}};
+            CarPartFactory expected = seededFactory(2L);
+            factory = seededFactory(2L);
+            for (CarPartFactory setup : new CarPartFactory[] {expected, factory}) {
+                for (int i = 0; i < timers.length; i++) {
+                    Queue<Integer> timer = new ListQueue<Integer>();
+                    for (int time : timers[i]) {
+                        timer.enqueue(time);
+                    }
+                    setup.getMachines().get(i).setTimer(timer);
+                }
+            }
+            expected.runFactory(3, 257);
+            factory.runFactoryEventDriven(3, 257);
+            assertSameFactory(expected, factory, "runFactoryEventDriven with custom timers");
+        }
+        @Test
+        @DisplayName("Testing that runFactory on a ForkJoinPool matches runFactory")
+        public void testParallel() throws IOException {
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                for (long seed = 1; seed <= 3; seed++) {
+                    CarPartFactory expected = seededFactory(seed);
+                    expected.runFactory(3, 250 + (int) seed);
+                    factory = seededFactory(seed);
+                    factory.runFactory(3, 250 + (int) seed, pool);
+                    assertSameFactory(expected, factory, "runFactory on a pool with seed " + seed);
+                }
+                // The ledgers are stored in a different way when the inventory is compact
+                CarPartFactory expected = seededFactory(5L);
+                expected.setupCompactInventory(true);
+                expected.runFactory(2, 400);
+                factory = seededFactory(5L);
+                factory.setupCompactInventory(true);
+                factory.runFactory(2, 400, pool);
+                assertSameFactory(expected, factory, "runFactory on a pool with a compact inventory");
+            }
+            finally {
+                pool.shutdown();
+            }
+        }
+    }
+    @Nested
+    @DisplayName("FactorySnapshot Tests")
+    public class TestFactorySnapshot {
+        @Test
+        @DisplayName("Testing that a factory loaded from a snapshot is the same as one read from the csv files")
+        public void testRoundTrip() throws IOException {
+            Path file = Files.createTempFile("factory", ".snapshot");
+            try {
+                FactorySnapshot.convert("input/orders.csv", "input/parts.csv", file.toString());
+                CarPartFactory expected = seededFactory(9L);
+                factory = CarPartFactory.fromSnapshot(file.toString(), 9L);
+
+                assertEquals(expected.getMachines().size(), factory.getMachines().size(), "Loaded a different amount of machines.");
+                for (int i = 0; i < expected.getMachines().size(); i++) {
+                    PartMachine expectedMachine = expected.getMachines().get(i);
+                    PartMachine machine = factory.getMachines().get(i);
+                    assertAll(
+                        () -> assertEquals(expectedMachine.getId(), machine.getId(), "Didn't load the machine id."),
+                        () -> assertEquals(expectedMachine.getPart().getId(), machine.getPart().getId(), "Didn't load the part id."),
+                        () -> assertEquals(expectedMachine.getPart().getName(), machine.getPart().getName(), "Didn't load the part name."),
+                        () -> assertEquals(expectedMachine.getPart().getWeight(), machine.getPart().getWeight(), "Didn't load the part weight."),
+                        () -> assertEquals(expectedMachine.getPartWeightError(), machine.getPartWeightError(), "Didn't load the weight error."),
+                        () -> assertEquals(expectedMachine.getPeriod(), machine.getPeriod(), "Didn't load the period."),
+                        () -> assertEquals(expectedMachine.getChanceOfDefective(), machine.getChanceOfDefective(), "Didn't load the chance of defective.")
+                    );
+                }
+                assertEquals(expected.getOrders().size(), factory.getOrders().size(), "Loaded a different amount of orders.");
+                for (int i = 0; i < expected.getOrders().size(); i++) {
+                    Order expectedOrder = expected.getOrders().get(i);
+                    Order order = factory.getOrders().get(i);
+                    assertEquals(expectedOrder.getId(), order.getId(), "Didn't load the order id.");
+                    assertEquals(expectedOrder.getCustomerName(), order.getCustomerName(), "Didn't load the customer name.");
+                    assertEquals(expectedOrder.getRequestedParts().size(), order.getRequestedParts().size(), "Didn't load the requested parts.");
+                    for (Integer partId : expectedOrder.getRequestedParts().keys()) {
+                        assertEquals(expectedOrder.getRequestedParts().get(partId), order.getRequestedParts().get(partId),
+                            "Didn't load the quantity of part " + partId + " for order " + order.getId() + ".");
+                    }
+                }
+
+                // Same seed, so both produce the same parts
+                expected.runFactory(3, 200);
+                factory.runFactory(3, 200);
+                assertSameFactory(expected, factory, "A factory loaded from a snapshot");
+
+                // The fulfilled orders are written as they are
+                FactorySnapshot.write(file.toString(), expected.getMachines(), expected.getOrders());
+                FactorySnapshot snapshot = FactorySnapshot.load(file.toString(), 9L);
+                for (int i = 0; i < expected.getOrders().size(); i++) {
+                    assertEquals(expected.getOrders().get(i).isFulfilled(), snapshot.getOrders().get(i).isFulfilled(),
+                        "Didn't load whether order " + expected.getOrders().get(i).getId() + " is fulfilled.");
+                }
+            }
+            finally {
+                Files.delete(file);
+            }
+        }
+
+        @Test
+        @DisplayName("Testing that truncated and corrupt snapshots are rejected")
+        public void testInvalidSnapshots() throws IOException {
+            Path file = Files.createTempFile("factory", ".snapshot");
+            try {
+                FactorySnapshot.convert("input/orders.csv", "input/parts.csv", file.toString());
+                byte[] bytes = Files.readAllBytes(file);
+                Executable load = () -> FactorySnapshot.load(file.toString(), 1L);
+                for (int length = 0; length < bytes.length; length++) {
+                    assertRejected(file, Arrays.copyOf(bytes, length), load, "only " + length + " of " + bytes.length + " bytes");
+                }
+                assertRejected(file, withInt(bytes, 0, 0x12345678), load, "the wrong magic number");
+                assertRejected(file, withInt(bytes, 4, 2), load, "an unknown version");
+                assertRejected(file, withInt(bytes, 8, Integer.MAX_VALUE), load, "a huge string count");
+                assertRejected(file, withInt(bytes, 8, -1), load, "a negative string count");
+
+                // Skip the string table to reach the first machine: int id, int partId, int partName
+                ByteBuffer data = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+                int stringCount = data.getInt(8);
+                int position = 12;
+                for (int i = 0; i < stringCount; i++) {
+                    position += 4 + data.getInt(position);
+                }
+                assertRejected(file, withInt(bytes, position, -1), load, "a negative machine count");
+                assertRejected(file, withInt(bytes, position + 12, stringCount), load, "a string index past the string table");
+                assertRejected(file, withInt(bytes, position + 12, -2), load, "a negative string index");
+                // period and chanceOfDefective come after the two doubles
+                assertRejected(file, withInt(bytes, position + 32, 0), load, "a period of 0");
+                assertRejected(file, withInt(bytes, position + 32, -4), load, "a negative period");
+                assertRejected(file, withInt(bytes, position + 36, 0), load, "a chance of defective of 0");
+                assertRejected(file, withInt(bytes, position + 36, -1), load, "a negative chance of defective");
+                Files.write(file, withInt(bytes, position + 32, 0));
+                IOException e = assertThrows(IOException.class, load);
+                assertTrue(e.getMessage().startsWith("corrupt snapshot: "), "Didn't say the snapshot is corrupt: " + e.getMessage());
+            }
+            finally {
+                Files.delete(file);
+            }
+        }
+
+        @Test
+        @DisplayName("Testing that an order without a customer name is written and loaded")
+        public void testNullCustomerName() throws IOException {
+            Path file = Files.createTempFile("factory", ".snapshot");
+            try {
+                List<Order> orders = new ArrayList<Order>();
+                Map<Integer, Integer> requestedParts = new HashTableSC<>(1, new BasicHashFunction());
+                requestedParts.put(1, 2);
+                orders.add(new Order(7, null, requestedParts, false));
+                orders.add(new Order(8, "Customer", requestedParts, true));
+                FactorySnapshot.write(file.toString(), seededFactory(1L).getMachines(), orders);
+                FactorySnapshot snapshot = FactorySnapshot.load(file.toString(), 1L);
+                assertAll(
+                    () -> assertEquals(2, snapshot.getOrders().size(), "Loaded a different amount of orders."),
+                    () -> assertEquals(null, snapshot.getOrders().get(0).getCustomerName(), "Didn't load the missing customer name."),
+                    () -> assertEquals("Customer", snapshot.getOrders().get(1).getCustomerName(), "Didn't load the customer name."),
+                    () -> assertEquals(2, snapshot.getOrders().get(0).getRequestedParts().get(1), "Didn't load the requested parts.")
+                );
+            }
+            finally {
+                Files.delete(file);
+            }
+        }
+    }
+    @Nested
+    @DisplayName("FactoryCheckpoint Tests")
+    public class TestFactoryCheckpoint {
+        @Test
+        @DisplayName("Testing that a run resumed from a checkpoint matches a run that was not interrupted")
+        public void testResume() throws IOException {
+            Path file = Files.createTempFile("factory", ".checkpoint");
+            try {
+                // A regular inventory, a compact one with weights, and a compact one without weights that fulfills orders every day
+                for (int mode = 0; mode < 3; mode++) {
+                    CarPartFactory expected = seededFactory(4L + mode);
+                    CarPartFactory interrupted = seededFactory(4L + mode);
+                    for (CarPartFactory setup : new CarPartFactory[] {expected, interrupted}) {
+                        if (mode > 0) {
+                            setup.setupCompactInventory(mode == 1);
+                        }
+                        if (mode == 2) {
+                            setup.setupOrderFulfillment();
+                        }
+                    }
+                    expected.runFactory(7, 300);
+                    // Checkpoints after days 2 and 4, the fifth day is lost
+                    interrupted.runFactory(5, 300, file.toString(), 2);
+
+                    factory = CarPartFactory.fromCheckpoint(file.toString());
+                    assertEquals(4, factory.getDaysRun(), "Didn't load the days run.");
+                    assertEquals(mode == 2, factory.hasOrderFulfillment(), "Didn't load whether orders are fulfilled every day.");
+                    factory.runFactory(7 - factory.getDaysRun(), 300);
+                    assertSameFactory(expected, factory, "A run resumed from a checkpoint (mode " + mode + ")");
+                }
+            }
+            finally {
+                Files.delete(file);
+            }
+        }
+
+        @Test
+        @DisplayName("Testing a checkpoint with parts on the belts and in the production bin")
+        public void testMiddleOfDay() throws IOException {
+            Path file = Files.createTempFile("factory", ".checkpoint");
+            try {
+                CarPartFactory expected = seededFactory(8L);
+                // A seed that doesn't come from the seed of the factory
+                expected.getMachines().get(0).setSeed(12345L);
+                for (int minute = 1; minute <= 50; minute++) {
+                    for (PartMachine machine : expected.getMachines()) {
+                        CarPart producedPart = machine.produceCarPart();
+                        if (producedPart != null) {
+                            expected.getProductionBin().push(producedPart);
+                        }
+                    }
+                }
+                expected.writeCheckpoint(file.toString());
+                factory = CarPartFactory.fromCheckpoint(file.toString());
+                assertEquals(expected.getProductionBin().size(), factory.getProductionBin().size(), "Didn't load the production bin.");
+
+                // Writing the checkpoint must not change the factory, both go on the same way
+                expected.storeInInventory();
+                expected.runFactory(2, 300);
+                factory.storeInInventory();
+                factory.runFactory(2, 300);
+                assertSameFactory(expected, factory, "A factory resumed in the middle of a day");
+            }
+            finally {
+                Files.delete(file);
+            }
+        }
+
+        @Test
+        @DisplayName("Testing that writing a checkpoint keeps the machines' timers as they were")
+        public void testTimerKept() throws IOException {
+            Path file = Files.createTempFile("factory", ".checkpoint");
+            try {
+                int[] dequeues = new int[1];
+                ArrayQueue<Integer> timer = new ArrayQueue<Integer>(4) {
+                    @Override
+                    public Integer dequeue() {
+                        dequeues[0]++;
+                        return super.dequeue();
+                    }
+                };
+                for (int time : new int[] {2, 1, 0, 3}) {
+                    timer.enqueue(time);
+                }
+                factory = seededFactory(2L);
+                PartMachine machine = factory.getMachines().get(0);
+                machine.setTimer(timer);
+                assertEquals(3, machine.minutesUntilProduction(), "Didn't find the 0 of the timer.");
+                factory.writeCheckpoint(file.toString());
+                dequeues[0] = 0;
+                assertAll(
+                    () -> assertEquals(3, machine.minutesUntilProduction(), "Writing a checkpoint changed the timer."),
+                    () -> assertEquals(0, dequeues[0], "Writing a checkpoint made the machine look for the 0 of its timer again.")
+                );
+                CarPartFactory loaded = CarPartFactory.fromCheckpoint(file.toString());
+                assertEquals(3, loaded.getMachines().get(0).minutesUntilProduction(), "Didn't save the timer.");
+            }
+            finally {
+                Files.delete(file);
+            }
+        }
+
+        @Test
+        @DisplayName("Testing that a factory that read orders from an OrderStream can't be checkpointed")
+        public void testStreamedOrders() throws IOException {
+            Path file = Files.createTempFile("factory", ".checkpoint");
+            try (OrderStream stream = new OrderStream("input/orders.csv", 10)) {
+                factory = new CarPartFactory(null, "input/parts.csv", 3L);
+                factory.runFactory(2, 40, stream);
+                assertTrue(factory.hasStreamedOrders(), "Didn't remember that orders came from a stream.");
+                assertThrows(IllegalStateException.class, () -> factory.writeCheckpoint(file.toString()),
+                    "Wrote a checkpoint without the position of the stream.");
+                assertThrows(IllegalStateException.class, () -> factory.runFactory(1, 40, file.toString(), 1),
+                    "Ran with checkpoints without the position of the stream.");
+                assertEquals(2, factory.getDaysRun(), "Ran a day before rejecting the checkpoints.");
+            }
+            finally {
+                Files.delete(file);
+            }
+        }
+
+        @Test
+        @DisplayName("Testing that truncated and corrupt checkpoints are rejected")
+        public void testInvalidCheckpoints() throws IOException {
+            Path file = Files.createTempFile("factory", ".checkpoint");
+            try {
+                seededFactory(1L).runFactory(2, 100, file.toString(), 1);
+                byte[] bytes = Files.readAllBytes(file);
+                Executable load = () -> CarPartFactory.fromCheckpoint(file.toString());
+                // Every length in the header and the first machines, then lengths spread over the rest of the file
+                for (int length = 0; length < bytes.length; length += length < 512 ? 1 : 97) {
+                    assertRejected(file, Arrays.copyOf(bytes, length), load, "only " + length + " of " + bytes.length + " bytes");
+                }
+                assertRejected(file, Arrays.copyOf(bytes, bytes.length - 1), load, "the last byte missing");
+                assertRejected(file, withInt(bytes, 0, 0x12345678), load, "the wrong magic number");
+                assertRejected(file, withInt(bytes, 4, 2), load, "an unknown version");
+                // The production bin is empty, its count is the last int of the file
+                assertRejected(file, withInt(bytes, bytes.length - 4, -1), load, "a negative bin count");
+                assertRejected(file, withInt(bytes, bytes.length - 4, 1), load, "a bin count bigger than the bin");
+
+                // A snapshot is not a checkpoint and a checkpoint is not a snapshot
+                FactorySnapshot.convert("input/orders.csv", "input/parts.csv", file.toString());
+                assertThrows(IOException.class, load, "Loaded a snapshot as a checkpoint.");
+                Files.write(file, bytes);
+                assertThrows(IOException.class, () -> FactorySnapshot.load(file.toString(), 1L), "Loaded a checkpoint as a snapshot.");
+            }
+            finally {
+                Files.delete(file);
+            }
+        }
+    }
 
 }
@@ -1,6 +1,7 @@
 package data_structures;
 
 import java.util.Iterator;
+import java.util.ListIterator;
 import java.util.NoSuchElementException;
 
 import interfaces.List;
@@ -123,15 +124,27 @@ public class DoublyLinkedList<E> implements List<E>{
 		return this.size;
 	}
 
+	/**
+	 * Finds the node at position index (index == size gives the trailer).
+	 * We start from whichever dummy is closer, so we never walk more than half the list.
+	 */
 	private Node<E> getNode(int index) {
 		// Check the index is valid
 		if(index < 0 || index >size)
 			throw new IndexOutOfBoundsException();
-		// We start at head
-		Node<E> temp = header.getNext();
-		// Move through the list until we find the node at position index
-		for(int i = 0; i < index; i++)
-			temp = temp.getNext();
+		Node<E> temp;
+		if(index < size / 2) {
+			// Closer to the start, we go forward from header
+			temp = header.getNext();
+			for(int i = 0; i < index; i++)
+				temp = temp.getNext();
+		}
+		else {
+			// Closer to the end, we go backwards from trailer
+			temp = trailer;
+			for(int i = size; i > index; i--)
+				temp = temp.getPrev();
+		}
 		// Return the node
 		return temp;
 	}
@@ -204,11 +217,15 @@ public class DoublyLinkedList<E> implements List<E>{
 		return firstIndex(obj)!=-1;
 	}
 
+	/**
+	 * Empties the list in O(1) by making the dummies point at each other again.
+	 * The old nodes are no longer reachable so the GC takes care of them.
+	 */
 	@Override
 	public void clear() {
-		while(!isEmpty())
-			remove(0);
-		
+		header.setNext(trailer);
+		trailer.setPrev(header);
+		size = 0;
 	}
 
 	@Override
@@ -291,6 +308,122 @@ public class DoublyLinkedList<E> implements List<E>{
 		return new LinkedListIterator<E>();
 	}
 	
+	/**
+	 * Returns a ListIterator that starts at the beginning of the list.
+	 */
+	public ListIterator<E> listIterator() {
+		return new DoublyLinkedListIterator(0);
+	}
+	
+	/**
+	 * Returns a ListIterator whose first call to next() returns the element at position index.
+	 * @param index - (int) starting position, between 0 and size
+	 */
+	public ListIterator<E> listIterator(int index) {
+		return new DoublyLinkedListIterator(index);
+	}
+	
+	/**
+	 * ListIterator that keeps a cursor between two nodes. It can move both ways and 
+	 * add or remove at the cursor in O(1) since it already holds the nodes that have to be relinked.
+	 */
+	private class DoublyLinkedListIterator implements ListIterator<E> {
+		// Node that next() will return (trailer if we are at the end)
+		private Node<E> nextNode;
+		// Position of nextNode
+		private int nextIndex;
+		// Node returned by the last call to next() or previous(), null if it can't be removed or set
+		private Node<E> lastReturned;
+		
+		public DoublyLinkedListIterator(int index) {
+			this.nextNode = getNode(index);
+			this.nextIndex = index;
+			this.lastReturned = null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextIndex < size;
+		}
+
+		@Override
+		public E next() {
+			if(!hasNext())
+				throw new NoSuchElementException();
+			lastReturned = nextNode;
+			nextNode = nextNode.getNext();
+			nextIndex++;
+			return lastReturned.getElement();
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return nextIndex > 0;
+		}
+
+		@Override
+		public E previous() {
+			if(!hasPrevious())
+				throw new NoSuchElementException();
+			nextNode = nextNode.getPrev();
+			lastReturned = nextNode;
+			nextIndex--;
+			return lastReturned.getElement();
+		}
+
+		@Override
+		public int nextIndex() {
+			return nextIndex;
+		}
+
+		@Override
+		public int previousIndex() {
+			return nextIndex - 1;
+		}
+
+		/**
+		 * Removes the element returned by the last next() or previous().
+		 */
+		@Override
+		public void remove() {
+			if(lastReturned == null)
+				throw new IllegalStateException();
+			// If we were moving backwards the cursor was on the removed node
+			if(lastReturned == nextNode)
+				nextNode = lastReturned.getNext();
+			else
+				nextIndex--;
+			lastReturned.getPrev().setNext(lastReturned.getNext());
+			lastReturned.getNext().setPrev(lastReturned.getPrev());
+			lastReturned.clear();
+			lastReturned = null;
+			size--;
+		}
+
+		/**
+		 * Replaces the element returned by the last next() or previous().
+		 */
+		@Override
+		public void set(E obj) {
+			if(lastReturned == null)
+				throw new IllegalStateException();
+			lastReturned.setElement(obj);
+		}
+
+		/**
+		 * Inserts obj right before the cursor, a following next() is not affected.
+		 */
+		@Override
+		public void add(E obj) {
+			Node<E> newNode = new Node<E>(nextNode, nextNode.getPrev(), obj);
+			nextNode.getPrev().setNext(newNode);
+			nextNode.setPrev(newNode);
+			nextIndex++;
+			lastReturned = null;
+			size++;
+		}
+	}
+	
 	
 
 }
\ No newline at end of file
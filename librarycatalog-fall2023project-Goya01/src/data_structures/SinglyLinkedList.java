@@ -73,15 +73,18 @@ public class SinglyLinkedList<E> implements List<E>{
 	
 	// Represent the first node in the list
 	private Node<E> head;
+	// Represent the last node in the list, so appending doesn't have to walk the whole chain
+	private Node<E> tail;
 	// Tracks the current size of the list
 	private int size;
 	
 
 	/**
-	 * Creates an empty list. Head starts as null since there is no data yet. Size is 0.
+	 * Creates an empty list. Head and tail start as null since there is no data yet. Size is 0.
 	 */
 	public SinglyLinkedList() {
 		this.head = null;
+		this.tail = null;
 		this.size = 0;
 	}
 	
@@ -100,7 +103,7 @@ public class SinglyLinkedList<E> implements List<E>{
 
 	/**
 	 * Adds a new element to the list. In this case we appends a node with the value obj
-	 * to the end of the chain
+	 * to the end of the chain. Since we keep a reference to the last node (tail) this is O(1).
 	 */
 	@Override
 	public void add(E obj) {
@@ -111,15 +114,11 @@ public class SinglyLinkedList<E> implements List<E>{
 		if(head == null)
 			head = newNode;
 		else {
-			// Lets search for the last node in the list
-			Node<E> temp = head;
-			while(temp.getNext() != null) {
-				temp = temp.getNext();
-			}
 			// Set the next of the last node to the new node.
 			// We now have a new last node
-			temp.setNext(newNode);
+			tail.setNext(newNode);
 		}
+		tail = newNode;
 		this.size++;
 		
 	}
@@ -163,6 +162,9 @@ public class SinglyLinkedList<E> implements List<E>{
 			newNode.setNext(head);
 			// Make head point to the new node since it is now the first node
 			head = newNode;
+			// If the list was empty this is also the last node
+			if(tail == null)
+				tail = newNode;
 		}
 		// If index is any position other than 0
 		else {
@@ -201,6 +203,9 @@ public class SinglyLinkedList<E> implements List<E>{
 			
 			// The new next of the previous node is now new node
 			previousNode.setNext(newNode);
+			// Added after the last node, it is now the last node
+			if(previousNode == tail)
+				tail = newNode;
 
 		}
 		this.size++;
@@ -247,7 +252,7 @@ public class SinglyLinkedList<E> implements List<E>{
 	@Override
 	public boolean remove(int index) {
 		// Check index is valid
-		if(index < 0 || index > size)
+		if(index < 0 || index >= size)
 			throw new IndexOutOfBoundsException();
 		// If it's the first node
 		if(index == 0) {
@@ -258,6 +263,9 @@ public class SinglyLinkedList<E> implements List<E>{
 			 * Notice this still works if there is only one node. 
 			 */
 			this.head = this.head.getNext();
+			// If it was the only node the list has no last node anymore
+			if(holdNode == tail)
+				tail = null;
 			// Help gc
 			holdNode.clear();
 		}
@@ -284,6 +292,9 @@ public class SinglyLinkedList<E> implements List<E>{
 			Node<E> nodeToRemove = previousNode.getNext();
 			// Update references
 			previousNode.setNext(nodeToRemove.getNext());
+			// If we removed the last node, the one before it is the new last node
+			if(nodeToRemove == tail)
+				tail = previousNode;
 			// Help GC
 			nodeToRemove.clear();
 		}
@@ -357,7 +368,8 @@ public class SinglyLinkedList<E> implements List<E>{
 		while(!isEmpty()) remove(0);
 		// Reset values for empty list
 		size = 0;
-		head = null;		
+		head = null;
+		tail = null;
 	}
 
 	/**
@@ -400,6 +412,8 @@ public class SinglyLinkedList<E> implements List<E>{
 				currentNode = currentNode.getNext();
 			}
 		}
+		// The last node we kept is the new last node (null if we removed everything)
+		tail = previousNode;
 		return count;
 	}
 	
@@ -452,7 +466,7 @@ public class SinglyLinkedList<E> implements List<E>{
 	public E last() {
 		if(this.isEmpty())
 			throw new NoSuchElementException();
-		return this.get(size-1);
+		return this.tail.getElement();
 	}
 	/**
 	 * Returns a String version of the SinglyLinkedList. 
@@ -0,0 +1,193 @@
+package tester;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ListIterator;
+import java.util.Random;
+
+import org.junit.Test;
+
+import data_structures.ArrayList;
+import data_structures.DoublyLinkedList;
+import data_structures.SinglyLinkedList;
+import interfaces.List;
+
+/*
+ * Tests for the data structures of this project. StudentTester must not be modified, so they live here.
+ */
+public class DataStructureTester {
+
+	@Test
+	public void testArrayListWithZeroCapacity() {
+		List<Integer> list = new ArrayList<>(0);
+		list.add(7);
+		for(int i = 0; i < 100; i++)
+			list.add(i);
+		assertTrue("Has wrong size after growing.", list.size() == 101);
+		assertTrue("Lost the first element when growing.", list.first() == 7);
+		assertTrue("Lost the last element when growing.", list.last() == 99);
+	}
+	@Test
+	public void testArrayListShifts() {
+		ArrayList<Integer> list = new ArrayList<>(1);
+		list.ensureCapacity(50);
+		for(int i = 0; i < 10; i++)
+			list.add(i);
+		list.add(0, -1);
+		list.add(5, -5);
+		list.add(list.size(), -10);
+		list.remove(3);
+		list.trimToSize();
+		list.add(11);
+		assertEquals("Elements were not shifted correctly.", "-1 0 1 3 -5 4 5 6 7 8 9 -10 11 ", contents(list));
+	}
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testSinglyLinkedListRemoveAtSize() {
+		List<Integer> list = new SinglyLinkedList<>();
+		list.add(1);
+		list.add(2);
+		list.remove(2);
+	}
+	@Test
+	public void testSinglyLinkedListTail() {
+		List<Integer> list = new SinglyLinkedList<>();
+		for(int i = 0; i < 5; i++)
+			list.add(i);
+		list.remove(4);
+		list.add(5);
+		list.add(list.size(), 6);
+		list.removeAll(6);
+		list.add(7);
+		list.remove(0);
+		list.add(0, -1);
+		assertEquals("Elements are not in order after appending and removing.", "-1 1 2 3 5 7 ", contents(list));
+		assertTrue("last() doesn't return the last element added.", list.last() == 7);
+		list.clear();
+		list.add(8);
+		assertTrue("Didn't reset the list after clear.", list.first() == 8 && list.last() == 8);
+	}
+
+	@Test
+	public void testDoublyLinkedListIndexes() {
+		DoublyLinkedList<Integer> list = doublyLinkedList(10);
+		java.util.List<Integer> expected = new java.util.ArrayList<>();
+		for(int i = 0; i < 10; i++)
+			expected.add(i);
+		assertTrue("get() walked back from the trailer to the wrong node.", list.get(7) == 7);
+		assertTrue("get() of the last index walked to the wrong node.", list.get(9) == 9);
+		Random random = new Random(3);
+		for(int round = 0; round < 500; round++) {
+			int index = random.nextInt(expected.size() + 1);
+			int operation = random.nextInt(4);
+			if(operation == 0) {
+				list.add(index, round);
+				expected.add(index, round);
+			}
+			else if(operation == 1 && index < expected.size()) {
+				list.remove(index);
+				expected.remove(index);
+			}
+			else if(operation == 2 && index < expected.size())
+				assertEquals("set() returned the wrong old value.", expected.set(index, -round), list.set(index, -round));
+			else if(operation == 3) {
+				list.add(round);
+				expected.add(round);
+			}
+			assertEquals("Has wrong size after round " + round + ".", expected.size(), list.size());
+			for(int i = 0; i < expected.size(); i++)
+				assertEquals("Has the wrong element at " + i + " after round " + round + ".", expected.get(i), list.get(i));
+		}
+	}
+	@Test
+	public void testDoublyLinkedListRemoveAfterPrevious() {
+		DoublyLinkedList<Integer> list = doublyLinkedList(10);
+		ListIterator<Integer> it = list.listIterator(list.size());
+		assertTrue("previous() from the end didn't return the last element.", it.previous() == 9);
+		assertTrue("previous() didn't move back.", it.previous() == 8);
+		it.remove();
+		assertEquals("Moved the cursor when removing after previous().", 8, it.nextIndex());
+		assertEquals("Moved the cursor when removing after previous().", 7, it.previousIndex());
+		assertTrue("next() after remove didn't return the element after the removed one.", it.next() == 9);
+		assertTrue("previous() after next() didn't return the same element.", it.previous() == 9);
+		it.set(90);
+		assertTrue("previous() skipped an element after set().", it.previous() == 7);
+		it.remove();
+		assertEquals("Removed the wrong elements.", "0 1 2 3 4 5 6 90 ", contents(list));
+		assertTrue("previous() after two removes returned the wrong element.", it.previous() == 6);
+	}
+	@Test
+	public void testDoublyLinkedListAddAtCursor() {
+		DoublyLinkedList<Integer> list = doublyLinkedList(10);
+		ListIterator<Integer> it = list.listIterator(2);
+		it.add(20);
+		assertEquals("previousIndex() after add is not the added element.", 2, it.previousIndex());
+		assertEquals("nextIndex() after add didn't move past the added element.", 3, it.nextIndex());
+		assertTrue("add() changed what next() returns.", it.next() == 2);
+		assertTrue("previous() didn't go back over the element from next().", it.previous() == 2);
+		assertTrue("previous() didn't return the added element.", it.previous() == 20);
+		it.add(10);
+		assertTrue("previous() after add didn't return the added element.", it.previous() == 10);
+		it.add(5);
+		assertEquals("nextIndex() is wrong after adding twice.", 3, it.nextIndex());
+		assertEquals("Added at the wrong positions.", "0 1 5 10 20 2 3 4 5 6 7 8 9 ", contents(list));
+		ListIterator<Integer> end = list.listIterator(list.size());
+		end.add(100);
+		assertTrue("add() at the end didn't append.", list.last() == 100);
+		assertTrue("hasNext() after adding at the end.", !end.hasNext());
+		assertTrue("previous() at the end didn't return the added element.", end.previous() == 100);
+	}
+	@Test
+	public void testDoublyLinkedListIllegalState() {
+		DoublyLinkedList<Integer> list = doublyLinkedList(10);
+		ListIterator<Integer> it = list.listIterator();
+		it.next();
+		it.remove();
+		try {
+			it.remove();
+			fail("Second remove() didn't throw.");
+		}
+		catch(IllegalStateException e) {
+		}
+		it.next();
+		it.add(3);
+		try {
+			it.remove();
+			fail("remove() after add() didn't throw.");
+		}
+		catch(IllegalStateException e) {
+		}
+		assertEquals("The failed calls changed the list.", "1 3 2 3 4 5 6 7 8 9 ", contents(list));
+	}
+	@Test
+	public void testDoublyLinkedListClear() {
+		DoublyLinkedList<Integer> list = doublyLinkedList(10);
+		list.clear();
+		assertTrue("Not empty after clear.", list.isEmpty());
+		assertTrue("The list iterator still has elements after clear.", !list.listIterator().hasNext());
+		list.add(1);
+		list.add(0, 0);
+		list.add(2);
+		ListIterator<Integer> it = list.listIterator(3);
+		assertTrue("The list iterator didn't start at the end.", it.previous() == 2);
+		it.remove();
+		assertEquals("Has wrong contents after reuse.", "0 1 ", contents(list));
+		assertTrue("get() walked back to the wrong node after reuse.", list.get(1) == 1);
+		assertTrue("Has wrong last element after reuse.", list.last() == 1);
+	}
+
+	private static DoublyLinkedList<Integer> doublyLinkedList(int size) {
+		DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+		for(int i = 0; i < size; i++)
+			list.add(i);
+		return list;
+	}
+
+	private static String contents(List<Integer> list) {
+		String str = "";
+		for(Integer element : list)
+			str += element + " ";
+		return str;
+	}
+}